@@ -0,0 +1,334 @@
+package com.totalizator.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.totalizator.dao.BookmakerDao;
+import com.totalizator.dao.Dao;
+import com.totalizator.dao.Page;
+import com.totalizator.model.Bet;
+import com.totalizator.model.BetType;
+import com.totalizator.model.Competition;
+import com.totalizator.model.OddsSnapshot;
+import com.totalizator.model.User;
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.routing.Route;
+import com.totalizator.routing.RouteMatch;
+import com.totalizator.service.BetService;
+import com.totalizator.service.CompetitionService;
+import com.totalizator.service.cache.CompetitionCache;
+import com.totalizator.service.factory.DaoFactory;
+import com.totalizator.service.factory.ServiceFactory;
+import com.totalizator.service.placement.PlacementTimeoutException;
+import com.totalizator.util.AuthStore;
+import com.totalizator.util.ConditionalGet;
+import com.totalizator.util.ValidationUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+
+@WebServlet(name = "apiController", urlPatterns = "/api/*")
+public class ApiController extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger();
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private CompetitionService competitionService;
+    private BetService betService;
+    private CompetitionCache competitionCache;
+    private Dao<BetType, Integer> betTypeDao;
+    private BookmakerDao bookmakerDao;
+
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        ServiceFactory serviceFactory = ServiceFactory.getInstance();
+        competitionService = serviceFactory.getCompetitionService();
+        betService = serviceFactory.getBetService();
+        competitionCache = serviceFactory.getCompetitionCache();
+        betTypeDao = DaoFactory.getInstance().getBetTypeDao();
+        bookmakerDao = DaoFactory.getInstance().getBookmakerDao();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RouteMatch match = RouteMatch.from(request);
+        Route route = match != null ? match.getRoute() : null;
+
+        try {
+            if (route == Route.API_COMPETITIONS) {
+                writeCompetitions(request, response);
+            } else if (route == Route.API_COMPETITION) {
+                Optional<Competition> competition = competitionService.findById(match.getInt("competitionId"));
+                if (competition.isEmpty()) {
+                    writeError(response, HttpServletResponse.SC_NOT_FOUND, "Competition not found");
+                    return;
+                }
+                OddsSnapshot odds = bookmakerDao.findOdds(competition.get().getId());
+                List<BetType> betTypes = betTypeDao.findAll();
+                try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+                    json.writeStartObject();
+                    writeCompetitionFields(json, competition.get());
+                    json.writeObjectFieldStart("odds");
+                    for (BetType betType : betTypes) {
+                        json.writeNumberField(betType.getName(), odds.getMultiplier(betType));
+                    }
+                    json.writeEndObject();
+                    json.writeEndObject();
+                }
+            } else if (route == Route.API_BET_TYPES) {
+                List<BetType> betTypes = betTypeDao.findAll();
+                try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+                    json.writeStartObject();
+                    json.writeArrayFieldStart("items");
+                    for (BetType betType : betTypes) {
+                        writeBetType(json, betType);
+                    }
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+            } else if (route == Route.API_BETS) {
+                UserPrincipal user = AuthStore.getPrincipal(request);
+                Page<Bet> page = betService.findPageByUserId(user.getId(), request.getParameter("cursor"),
+                        getLimit(request));
+                try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+                    json.writeStartObject();
+                    json.writeArrayFieldStart("items");
+                    for (Bet bet : page.getItems()) {
+                        writeBet(json, bet);
+                    }
+                    json.writeEndArray();
+                    writeCursors(json, page);
+                    json.writeEndObject();
+                }
+            } else {
+                writeError(response, HttpServletResponse.SC_NOT_FOUND, "Not found");
+            }
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Error serving API request {}", route, e);
+            writeError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal error");
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null || match.getRoute() != Route.API_PLACE_BET) {
+            writeError(response, HttpServletResponse.SC_NOT_FOUND, "Not found");
+            return;
+        }
+
+        UserPrincipal user = AuthStore.getPrincipal(request);
+        if (!ValidationUtil.areAllNotEmpty(request.getParameter("competitionId"), request.getParameter("betTypeId"),
+                request.getParameter("amount"))) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "competitionId, betTypeId and amount are required");
+            return;
+        }
+        try {
+            int competitionId = Integer.parseInt(request.getParameter("competitionId"));
+            int betTypeId = Integer.parseInt(request.getParameter("betTypeId"));
+            BigDecimal amount = new BigDecimal(request.getParameter("amount"));
+
+            Optional<Competition> competition = competitionService.findById(competitionId);
+            Optional<BetType> betType = betTypeDao.findById(betTypeId);
+            if (competition.isEmpty() || betType.isEmpty()) {
+                writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Unknown competition or bet type");
+                return;
+            }
+
+            User bettor = new User();
+            bettor.setId(user.getId());
+            bettor.setUsername(user.getUsername());
+
+            Bet bet = new Bet();
+            bet.setUser(bettor);
+            bet.setCompetition(competition.get());
+            bet.setBetType(betType.get());
+            bet.setAmount(amount);
+            bet.setPredictedValue(request.getParameter("predictedValue"));
+
+            Bet saved = betService.placeBet(bet);
+            logger.info("Bet placed through API by user {}: competition={}, amount={}",
+                    user.getUsername(), competitionId, amount);
+            try (JsonGenerator json = open(response, HttpServletResponse.SC_CREATED)) {
+                writeBet(json, saved);
+            }
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (PlacementTimeoutException e) {
+            logger.warn("Bet placement through API timed out: {}", e.getMessage());
+            writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Error placing bet through API", e);
+            writeError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal error");
+        }
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null || match.getRoute() != Route.API_CANCEL_BET) {
+            writeError(response, HttpServletResponse.SC_NOT_FOUND, "Not found");
+            return;
+        }
+
+        UserPrincipal user = AuthStore.getPrincipal(request);
+        int betId = match.getInt("betId");
+        try {
+            Optional<Bet> bet = betService.findById(betId);
+            if (bet.isEmpty() || bet.get().getUser() == null || bet.get().getUser().getId() != user.getId()) {
+                writeError(response, HttpServletResponse.SC_NOT_FOUND, "Bet not found");
+                return;
+            }
+            if (!betService.cancelBet(betId)) {
+                writeError(response, HttpServletResponse.SC_CONFLICT, "Bet cannot be cancelled");
+                return;
+            }
+            try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+                json.writeStartObject();
+                json.writeNumberField("id", betId);
+                json.writeStringField("status", Bet.BetStatus.CANCELLED.name());
+                json.writeEndObject();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error cancelling bet {} through API", betId, e);
+            writeError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal error");
+        }
+    }
+
+    private void writeCompetitions(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String status = request.getParameter("status");
+        if (status != null) {
+            Competition.CompetitionStatus.valueOf(status);
+        }
+        if (ConditionalGet.isNotModified(request, response,
+                competitionCache.getVersion(), competitionCache.getLastModifiedMillis())) {
+            return;
+        }
+
+        Page<Competition> page = competitionService.findPageByStatus(status, request.getParameter("cursor"),
+                getLimit(request));
+        try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("items");
+            for (Competition competition : page.getItems()) {
+                writeCompetition(json, competition);
+            }
+            json.writeEndArray();
+            writeCursors(json, page);
+            json.writeEndObject();
+        }
+    }
+
+    private static int getLimit(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(limit)));
+    }
+
+    private static JsonGenerator open(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        return JSON.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.resetBuffer();
+        try (JsonGenerator json = open(response, status)) {
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeCursors(JsonGenerator json, Page<?> page) throws IOException {
+        json.writeStringField("nextCursor", page.getNextCursor());
+        json.writeStringField("previousCursor", page.getPreviousCursor());
+    }
+
+    private static void writeCompetition(JsonGenerator json, Competition competition) throws IOException {
+        json.writeStartObject();
+        writeCompetitionFields(json, competition);
+        json.writeEndObject();
+    }
+
+    private static void writeCompetitionFields(JsonGenerator json, Competition competition) throws IOException {
+        json.writeNumberField("id", competition.getId());
+        json.writeStringField("title", competition.getTitle());
+        json.writeStringField("description", competition.getDescription());
+        json.writeStringField("sportType", competition.getSportType());
+        json.writeStringField("team1", competition.getTeam1());
+        json.writeStringField("team2", competition.getTeam2());
+        writeDate(json, "startDate", competition.getStartDate());
+        writeDate(json, "endDate", competition.getEndDate());
+        json.writeStringField("status", competition.getStatus() != null ? competition.getStatus().name() : null);
+        json.writeStringField("result", competition.getResult());
+        writeInteger(json, "score1", competition.getScore1());
+        writeInteger(json, "score2", competition.getScore2());
+    }
+
+    private static void writeBetType(JsonGenerator json, BetType betType) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", betType.getId());
+        json.writeStringField("name", betType.getName());
+        json.writeStringField("description", betType.getDescription());
+        json.writeNumberField("multiplier", betType.getMultiplier());
+        json.writeEndObject();
+    }
+
+    private static void writeBet(JsonGenerator json, Bet bet) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", bet.getId());
+        if (bet.getCompetition() != null) {
+            json.writeNumberField("competitionId", bet.getCompetition().getId());
+            json.writeStringField("competitionTitle", bet.getCompetition().getTitle());
+        }
+        if (bet.getBetType() != null) {
+            json.writeNumberField("betTypeId", bet.getBetType().getId());
+            json.writeStringField("betType", bet.getBetType().getName());
+        }
+        json.writeNumberField("amount", bet.getAmount());
+        json.writeStringField("predictedValue", bet.getPredictedValue());
+        json.writeStringField("status", bet.getStatus() != null ? bet.getStatus().name() : null);
+        json.writeNumberField("winAmount", bet.getWinAmount());
+        writeDate(json, "createdAt", bet.getCreatedAt());
+        json.writeEndObject();
+    }
+
+    private static void writeDate(JsonGenerator json, String name, LocalDateTime value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value.toString());
+        } else {
+            json.writeNullField(name);
+        }
+    }
+
+    private static void writeInteger(JsonGenerator json, String name, Integer value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(name, value);
+        } else {
+            json.writeNullField(name);
+        }
+    }
+}
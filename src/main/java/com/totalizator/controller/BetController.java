@@ -1,15 +1,20 @@
 package com.totalizator.controller;
 
+import com.totalizator.dao.BookmakerDao;
+import com.totalizator.dao.Page;
 import com.totalizator.model.Bet;
 import com.totalizator.model.BetType;
 import com.totalizator.model.Competition;
 import com.totalizator.model.User;
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.routing.Route;
+import com.totalizator.routing.RouteMatch;
 import com.totalizator.service.BetService;
 import com.totalizator.service.CompetitionService;
 import com.totalizator.dao.Dao;
 import com.totalizator.service.factory.DaoFactory;
 import com.totalizator.service.factory.ServiceFactory;
-import com.totalizator.util.ValidationUtil;
+import com.totalizator.util.AuthStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -28,10 +33,11 @@ import java.util.Optional;
 @WebServlet(name = "betController", urlPatterns = "/bets/*")
 public class BetController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger();
+    private static final int PAGE_SIZE = 20;
     private BetService betService;
     private CompetitionService competitionService;
     private Dao<BetType, Integer> betTypeDao;
-    private ValidationUtil validationUtil;
+    private BookmakerDao bookmakerDao;
 
 
     @Override
@@ -41,56 +47,56 @@ public class BetController extends HttpServlet {
         competitionService = serviceFactory.getCompetitionService();
         betService = serviceFactory.getBetService();
         betTypeDao = DaoFactory.getInstance().getBetTypeDao();
-        validationUtil = new ValidationUtil();
+        bookmakerDao = DaoFactory.getInstance().getBookmakerDao();
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        if (!validationUtil.requireAuthentication(request, response)) {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
 
-        User user = validationUtil.getUserFromSession(request);
-        String pathInfo = request.getPathInfo();
+        UserPrincipal user = AuthStore.getPrincipal(request);
 
-        if (pathInfo == null || pathInfo.equals("/")) {
-            List<Bet> bets = betService.findByUserId(user.getId());
-            request.setAttribute("bets", bets);
-            request.setAttribute("user", user);
+        if (match.getRoute() == Route.BETS) {
+            Page<Bet> page = betService.findPageByUserId(user.getId(), request.getParameter("cursor"), PAGE_SIZE);
+            request.setAttribute("bets", page.getItems());
+            request.setAttribute("page", page);
+            request.setAttribute("principal", user);
             request.getRequestDispatcher("/pages/bets.jsp").forward(request, response);
-        } else if (pathInfo.startsWith("/create/")) {
-            String competitionIdStr = pathInfo.substring("/create/".length());
-            try {
-                int competitionId = Integer.parseInt(competitionIdStr);
-                Optional<Competition> competitionOptional = competitionService.findById(competitionId);
-                if (competitionOptional.isEmpty()) {
-                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
-                    return;
-                }
-
-                List<BetType> betTypes = betTypeDao.findAll();
-                request.setAttribute("competition", competitionOptional.get());
-                request.setAttribute("betTypes", betTypes);
-                request.setAttribute("user", user);
-                request.getRequestDispatcher("/pages/create-bet.jsp").forward(request, response);
-            } catch (NumberFormatException e) {
-                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        } else if (match.getRoute() == Route.BET_FORM) {
+            Optional<Competition> competitionOptional = competitionService.findById(match.getInt("competitionId"));
+            if (competitionOptional.isEmpty()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
+
+            List<BetType> betTypes = betTypeDao.findAll();
+            request.setAttribute("competition", competitionOptional.get());
+            request.setAttribute("betTypes", betTypes);
+            request.setAttribute("odds", bookmakerDao.findOdds(competitionOptional.get().getId()));
+            request.setAttribute("principal", user);
+            request.getRequestDispatcher("/pages/create-bet.jsp").forward(request, response);
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        if (!validationUtil.requireAuthentication(request, response)) {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
 
-        User user = validationUtil.getUserFromSession(request);
-        String pathInfo = request.getPathInfo();
+        UserPrincipal user = AuthStore.getPrincipal(request);
 
-        if (pathInfo != null && pathInfo.equals("/create")) {
+        if (match.getRoute() == Route.BET_CREATE) {
             try {
                 int competitionId = Integer.parseInt(request.getParameter("competitionId"));
                 int betTypeId = Integer.parseInt(request.getParameter("betTypeId"));
@@ -105,8 +111,12 @@ public class BetController extends HttpServlet {
                     return;
                 }
 
+                User bettor = new User();
+                bettor.setId(user.getId());
+                bettor.setUsername(user.getUsername());
+
                 Bet bet = new Bet();
-                bet.setUser(user);
+                bet.setUser(bettor);
                 bet.setCompetition(competitionOptional.get());
                 bet.setBetType(betTypeOptional.get());
                 bet.setAmount(amount);
@@ -122,15 +132,16 @@ public class BetController extends HttpServlet {
                 request.setAttribute("error", e.getMessage());
                 request.getRequestDispatcher("/pages/create-bet.jsp").forward(request, response);
             }
-        } else if (pathInfo != null && pathInfo.startsWith("/cancel/")) {
+        } else if (match.getRoute() == Route.BET_CANCEL) {
             try {
-                int betId = Integer.parseInt(pathInfo.substring("/cancel/".length()));
-                betService.cancelBet(betId);
+                betService.cancelBet(match.getInt("betId"));
                 response.sendRedirect(request.getContextPath() + "/bets/");
             } catch (Exception e) {
                 logger.error("Error cancelling bet", e);
                 response.sendRedirect(request.getContextPath() + "/bets/");
             }
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 }
@@ -1,12 +1,16 @@
 package com.totalizator.controller;
 
+import com.totalizator.dao.Page;
 import com.totalizator.model.Competition;
-import com.totalizator.model.User;
+import com.totalizator.model.UserPrincipal;
 import com.totalizator.service.CompetitionService;
-import com.totalizator.service.factory.DaoFactory;
+import com.totalizator.service.cache.CompetitionCache;
 import com.totalizator.service.factory.ServiceFactory;
 
-import com.totalizator.util.ValidationUtil;
+import com.totalizator.util.AuthStore;
+import com.totalizator.util.CapturingResponseWrapper;
+import com.totalizator.util.ConditionalGet;
+import com.totalizator.util.RenderedPageCache;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -16,22 +20,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
 
 
 @WebServlet(name = "homeController", urlPatterns = "/")
 public class HomeController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger();
+    private static final int PAGE_SIZE = 20;
     private CompetitionService competitionService;
-    private ValidationUtil validationUtil;
+    private CompetitionCache competitionCache;
+    private final RenderedPageCache renderedPages = new RenderedPageCache();
 
     @Override
     public void init() throws ServletException {
         super.init();
         ServiceFactory serviceFactory = ServiceFactory.getInstance();
         competitionService = serviceFactory.getCompetitionService();
-        validationUtil = new ValidationUtil();
+        competitionCache = serviceFactory.getCompetitionCache();
     }
 
     @Override
@@ -39,33 +44,64 @@ public class HomeController extends HttpServlet {
             throws ServletException, IOException {
         logger.info("HomeController.doGet() called for URI: {}", request.getRequestURI());
 
-        validationUtil.ensureDefaultLocale(request);
-        User user = validationUtil.getUserFromSession(request);
-        
+        long version = competitionCache.getVersion();
+        if (ConditionalGet.isNotModified(request, response, version, competitionCache.getLastModifiedMillis())) {
+            return;
+        }
+        UserPrincipal user = AuthStore.getPrincipal(request);
+        String cursor = request.getParameter("cursor");
+
+        if (user == null && cursor == null) {
+            writeAnonymousHomePage(request, response, version);
+            return;
+        }
+        render(request, response, user, cursor);
+    }
+
+    
+    private void writeAnonymousHomePage(HttpServletRequest request, HttpServletResponse response, long version)
+            throws ServletException, IOException {
+        Locale locale = AuthStore.getLocale(request);
+        RenderedPageCache.RenderedPage page = renderedPages.get(locale, version);
+        if (page == null) {
+            CapturingResponseWrapper capture = new CapturingResponseWrapper(response);
+            boolean cacheable = render(request, capture, null, null);
+            page = new RenderedPageCache.RenderedPage(version, capture);
+            if (cacheable && capture.getStatus() == HttpServletResponse.SC_OK) {
+                renderedPages.put(locale, page);
+            }
+        }
+        page.writeTo(response);
+    }
+
+    
+    private boolean render(HttpServletRequest request, HttpServletResponse response, UserPrincipal user, String cursor)
+            throws ServletException, IOException {
         logger.info("HomeController: Starting to load competitions for user: {}", 
                 user != null ? user.getUsername() : "anonymous");
         
-        List<Competition> competitions = loadCompetitions();
-        request.setAttribute("competitions", competitions);
-        request.setAttribute("user", user);
+        Page<Competition> page = loadCompetitions(cursor);
+        if (page == null) {
+            page = Page.empty();
+        }
+        request.setAttribute("competitions", page.getItems());
+        request.setAttribute("page", page);
+        request.setAttribute("principal", user);
         
-        logger.info("HomeController: Forwarding to /index.jsp with {} competitions", competitions.size());
+        logger.info("HomeController: Forwarding to /index.jsp with {} competitions", page.getItems().size());
         request.getRequestDispatcher("/index.jsp").forward(request, response);
+        return !page.getItems().isEmpty();
     }
     
     
-    private List<Competition> loadCompetitions() {
+    private Page<Competition> loadCompetitions(String cursor) {
         try {
-            List<Competition> competitions = competitionService.findAll();
-            if (competitions == null) {
-                logger.warn("HomeController: competitions is null, returning empty list");
-                return new ArrayList<>();
-            }
-            logger.info("HomeController: Loaded {} competitions", competitions.size());
-            return competitions;
+            Page<Competition> page = competitionService.findPage(cursor, PAGE_SIZE);
+            logger.info("HomeController: Loaded {} competitions", page.getItems().size());
+            return page;
         } catch (Exception e) {
             logger.error("HomeController: Error loading competitions", e);
-            return new ArrayList<>();
+            return null;
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.totalizator.controller;
 
+import com.totalizator.util.AuthStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -7,7 +8,6 @@ import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.util.Locale;
@@ -38,8 +38,7 @@ public class LocaleController extends HttpServlet {
             }
         }
 
-        HttpSession session = request.getSession();
-        session.setAttribute("locale", locale);
+        AuthStore.getInstance().changeLocale(request, response, locale);
         logger.info("Locale changed to: {}", locale);
 
         String referer = request.getHeader("Referer");
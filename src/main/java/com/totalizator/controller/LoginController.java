@@ -1,16 +1,17 @@
 package com.totalizator.controller;
 
 import com.totalizator.model.User;
+import com.totalizator.model.UserPrincipal;
 import com.totalizator.service.UserService;
 import com.totalizator.service.factory.ServiceFactory;
 
+import com.totalizator.util.AuthStore;
 import com.totalizator.util.ValidationUtil;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.Optional;
 
@@ -23,8 +24,7 @@ public class LoginController extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        HttpSession session = request.getSession(false);
-        if (session != null && session.getAttribute("user") != null) {
+        if (AuthStore.getPrincipal(request) != null) {
             response.sendRedirect(request.getContextPath() + "/");
             return;
         }
@@ -47,8 +47,7 @@ public class LoginController extends HttpServlet {
         Optional<User> userOptional = userService.authenticate(username, password);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            HttpSession session = request.getSession();
-            session.setAttribute("user", user);
+            AuthStore.getInstance().signIn(request, response, UserPrincipal.from(user));
 
             response.sendRedirect(request.getContextPath() + "/");
         } else {
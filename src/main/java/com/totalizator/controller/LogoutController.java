@@ -1,5 +1,7 @@
 package com.totalizator.controller;
 
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.util.AuthStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -7,7 +9,6 @@ import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 
 
@@ -18,14 +19,11 @@ public class LogoutController extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
-        HttpSession session = request.getSession(false);
-        if (session != null) {
-            Object user = session.getAttribute("user");
-            if (user != null) {
-                logger.info("User logged out: {}", ((com.totalizator.model.User) user).getUsername());
-            }
-            session.invalidate();
+        UserPrincipal principal = AuthStore.getPrincipal(request);
+        if (principal != null) {
+            logger.info("User logged out: {}", principal.getUsername());
         }
+        AuthStore.getInstance().signOut(request, response);
         response.sendRedirect(request.getContextPath() + "/login");
     }
 }
@@ -0,0 +1,135 @@
+package com.totalizator.controller;
+
+import com.totalizator.event.CompetitionEvent;
+import com.totalizator.event.EventListener;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Consumer;
+
+
+final class SseClient implements EventListener, WriteListener {
+    private static final Logger logger = LogManager.getLogger();
+    private static final String HEARTBEAT_KEY = "heartbeat";
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final AsyncContext context;
+    private final ServletOutputStream out;
+    private final int capacity;
+    private final Consumer<SseClient> onClose;
+    private final LinkedHashMap<String, byte[]> pending = new LinkedHashMap<>();
+    private boolean writable;
+    private boolean closed;
+
+    SseClient(AsyncContext context, ServletOutputStream out, int capacity, Consumer<SseClient> onClose) {
+        this.context = context;
+        this.out = out;
+        this.capacity = capacity;
+        this.onClose = onClose;
+    }
+
+    void start(long retryMillis) {
+        offer("retry", ("retry: " + retryMillis + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.setWriteListener(this);
+    }
+
+    @Override
+    public void onEvent(CompetitionEvent event) {
+        offer(event.getCoalescingKey(), event.getFrame());
+    }
+
+    void heartbeat() {
+        offer(HEARTBEAT_KEY, HEARTBEAT);
+    }
+
+    @Override
+    public void onWritePossible() {
+        synchronized (this) {
+            writable = true;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        logger.debug("Event stream client failed", t);
+        close();
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        onClose.accept(this);
+        try {
+            context.complete();
+        } catch (IllegalStateException e) {
+            logger.debug("Event stream already completed", e);
+        }
+    }
+
+    private void offer(String key, byte[] frame) {
+        boolean overflow;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            pending.remove(key);
+            pending.put(key, frame);
+            overflow = pending.size() > capacity;
+        }
+        if (overflow) {
+            logger.warn("Event stream client fell {} updates behind, disconnecting", capacity);
+            close();
+            return;
+        }
+        drain();
+    }
+
+    private void drain() {
+        boolean failed = false;
+        synchronized (this) {
+            if (closed || !writable) {
+                return;
+            }
+            try {
+                boolean wrote = false;
+                Iterator<byte[]> frames = pending.values().iterator();
+                while (frames.hasNext()) {
+                    if (!out.isReady()) {
+                        writable = false;
+                        return;
+                    }
+                    byte[] frame = frames.next();
+                    frames.remove();
+                    out.write(frame);
+                    wrote = true;
+                }
+                if (wrote) {
+                    if (out.isReady()) {
+                        out.flush();
+                    } else {
+                        writable = false;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Error writing to event stream client", e);
+                failed = true;
+            }
+        }
+        if (failed) {
+            close();
+        }
+    }
+}
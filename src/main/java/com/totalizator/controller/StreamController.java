@@ -0,0 +1,113 @@
+package com.totalizator.controller;
+
+import com.totalizator.event.EventBus;
+import com.totalizator.util.AppConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+@WebServlet(name = "streamController", urlPatterns = "/api/stream", asyncSupported = true)
+public class StreamController extends HttpServlet {
+    private static final Logger logger = LogManager.getLogger();
+    private static final long DEFAULT_HEARTBEAT_MILLIS = 15_000;
+    private static final int DEFAULT_CLIENT_BUFFER = 64;
+    private static final int DEFAULT_MAX_CLIENTS = 1000;
+    private static final long RETRY_MILLIS = 5_000;
+    private final Set<SseClient> clients = ConcurrentHashMap.newKeySet();
+    private EventBus eventBus;
+    private ScheduledExecutorService heartbeat;
+    private int clientBuffer;
+    private int maxClients;
+
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        AppConfig config = AppConfig.getInstance();
+        eventBus = EventBus.getInstance();
+        clientBuffer = config.getInt("sse.clientBufferSize", DEFAULT_CLIENT_BUFFER);
+        maxClients = config.getInt("sse.maxClients", DEFAULT_MAX_CLIENTS);
+        long heartbeatMillis = config.getLong("sse.heartbeatMillis", DEFAULT_HEARTBEAT_MILLIS);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(() -> clients.forEach(SseClient::heartbeat),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (clients.size() >= maxClients) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext context = request.startAsync();
+        context.setTimeout(0);
+        SseClient client = new SseClient(context, response.getOutputStream(), clientBuffer, this::remove);
+        context.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                remove(client);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                client.close();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                client.close();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        clients.add(client);
+        eventBus.subscribe(client);
+        client.start(RETRY_MILLIS);
+        logger.debug("Event stream client connected, {} active", clients.size());
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        for (SseClient client : clients) {
+            client.close();
+        }
+        super.destroy();
+    }
+
+    private void remove(SseClient client) {
+        if (clients.remove(client)) {
+            eventBus.unsubscribe(client);
+            logger.debug("Event stream client disconnected, {} active", clients.size());
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.totalizator.controller.admin;
 
+import com.totalizator.dao.Page;
 import com.totalizator.model.Competition;
 import com.totalizator.model.Role;
 import com.totalizator.model.User;
-import com.totalizator.service.BetService;
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.routing.Route;
+import com.totalizator.routing.RouteMatch;
 import com.totalizator.service.CompetitionService;
+import com.totalizator.service.SettlementJobService;
 import com.totalizator.service.UserService;
+import com.totalizator.service.cache.CompetitionCache;
 import com.totalizator.service.factory.ServiceFactory;
-import com.totalizator.util.ValidationUtil;
+import com.totalizator.util.AuthStore;
+import com.totalizator.util.ConditionalGet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -19,16 +25,18 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 
 @WebServlet(name = "adminController", urlPatterns = "/admin/*")
 public class AdminController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger();
-    private ValidationUtil validationUtil;
+    private static final int PAGE_SIZE = 20;
+    private static final int SETTLEMENT_JOBS_SHOWN = 10;
     private CompetitionService competitionService;
     private UserService userService;
+    private CompetitionCache competitionCache;
+    private SettlementJobService settlementJobService;
 
 
     @Override
@@ -37,62 +45,57 @@ public class AdminController extends HttpServlet {
         ServiceFactory serviceFactory = ServiceFactory.getInstance();
         competitionService = serviceFactory.getCompetitionService();
         userService = serviceFactory.getUserService();
-        validationUtil = new ValidationUtil();
+        competitionCache = serviceFactory.getCompetitionCache();
+        settlementJobService = serviceFactory.getSettlementJobService();
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        if (!validationUtil.requireAuthentication(request, response)
-                || !validationUtil.requireRole(request, response, "ADMIN")) {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
         
-        User user = validationUtil.getUserFromSession(request);
+        UserPrincipal user = AuthStore.getPrincipal(request);
+        Route route = match.getRoute();
         
-        String pathInfo = request.getPathInfo();
-        
-        if (pathInfo == null || pathInfo.equals("/")) {
-            List<Competition> competitions = competitionService.findAll();
-            List<User> users = userService.findAll();
-            
-            request.setAttribute("competitions", competitions);
-            request.setAttribute("users", users);
-            request.setAttribute("user", user);
+        if (route == Route.ADMIN_DASHBOARD) {
+            request.setAttribute("competitionCache", competitionCache);
+            request.setAttribute("settlementJobs", settlementJobService.findRecentJobs(SETTLEMENT_JOBS_SHOWN));
+            request.setAttribute("principal", user);
             request.getRequestDispatcher("/pages/admin/dashboard.jsp").forward(request, response);
-        } else if (pathInfo.startsWith("/competitions")) {
-            List<Competition> competitions = competitionService.findAll();
-            request.setAttribute("competitions", competitions);
-            request.setAttribute("user", user);
+        } else if (route == Route.ADMIN_COMPETITIONS) {
+            if (ConditionalGet.isNotModified(request, response,
+                    competitionCache.getVersion(), competitionCache.getLastModifiedMillis())) {
+                return;
+            }
+            setCompetitionsPage(request, request.getParameter("cursor"));
+            request.setAttribute("principal", user);
             request.getRequestDispatcher("/pages/admin/competitions.jsp").forward(request, response);
-        } else if (pathInfo.startsWith("/users")) {
-            List<User> users = userService.findAll();
-            request.setAttribute("users", users);
-            request.setAttribute("user", user);
+        } else if (route == Route.ADMIN_USERS) {
+            setUsersPage(request, request.getParameter("cursor"));
+            request.setAttribute("principal", user);
             request.getRequestDispatcher("/pages/admin/users.jsp").forward(request, response);
-        } else if (pathInfo.startsWith("/competition/generate/")) {
-            String competitionIdStr = pathInfo.substring("/competition/generate/".length());
+        } else if (route == Route.ADMIN_GENERATE_RESULT) {
             try {
-                int competitionId = Integer.parseInt(competitionIdStr);
+                int competitionId = match.getInt("competitionId");
                 competitionService.generateRandomResult(competitionId);
-                BetService betService = ServiceFactory.getInstance().getBetService();
-                betService.processBetsForCompetition(competitionId);
                 response.sendRedirect(request.getContextPath() + "/admin/competitions");
             } catch (Exception e) {
                 logger.error("Error generating result", e);
                 response.sendRedirect(request.getContextPath() + "/admin/competitions");
             }
-        } else if (pathInfo.startsWith("/user/delete/")) {
+        } else if (route == Route.ADMIN_DELETE_USER) {
             try {
-                String userIdStr = pathInfo.substring("/user/delete/".length());
-                int userId = Integer.parseInt(userIdStr);
+                int userId = match.getInt("userId");
 
                 if (userId == user.getId()) {
                     logger.warn("Admin {} attempted to delete themselves", user.getUsername());
                     request.setAttribute("error", "You cannot delete your own account");
-                    List<User> users = userService.findAll();
-                    request.setAttribute("users", users);
-                    request.setAttribute("user", user);
+                    setUsersPage(request, null);
+                    request.setAttribute("principal", user);
                     request.getRequestDispatcher("/pages/admin/users.jsp").forward(request, response);
                     return;
                 }
@@ -105,29 +108,28 @@ public class AdminController extends HttpServlet {
                     logger.warn("Failed to delete user with id: {}", userId);
                 }
                 response.sendRedirect(request.getContextPath() + "/admin/users");
-            } catch (NumberFormatException e) {
-                logger.error("Invalid user ID format", e);
-                response.sendRedirect(request.getContextPath() + "/admin/users");
             } catch (Exception e) {
                 logger.error("Error deleting user", e);
                 response.sendRedirect(request.getContextPath() + "/admin/users");
             }
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        if (!validationUtil.requireAuthentication(request, response)
-                || !validationUtil.requireRole(request, response, "ADMIN")) {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
         
-        User user = validationUtil.getUserFromSession(request);
+        UserPrincipal user = AuthStore.getPrincipal(request);
+        Route route = match.getRoute();
         
-        String pathInfo = request.getPathInfo();
-        
-        if (pathInfo != null && pathInfo.equals("/competition/create")) {
+        if (route == Route.ADMIN_CREATE_COMPETITION) {
             try {
                 Competition competition = new Competition();
                 generateCompetitionFromRequest(request, competition);
@@ -139,12 +141,11 @@ public class AdminController extends HttpServlet {
             } catch (Exception e) {
                 logger.error("Error creating competition", e);
                 request.setAttribute("error", "Error creating competition: " + e.getMessage());
-                List<Competition> competitions = competitionService.findAll();
-                request.setAttribute("competitions", competitions);
-                request.setAttribute("user", user);
+                setCompetitionsPage(request, null);
+                request.setAttribute("principal", user);
                 request.getRequestDispatcher("/pages/admin/competitions.jsp").forward(request, response);
             }
-        } else if (pathInfo != null && pathInfo.equals("/user/create")) {
+        } else if (route == Route.ADMIN_CREATE_USER) {
             try {
                 String username = request.getParameter("username");
                 String email = request.getParameter("email");
@@ -156,9 +157,8 @@ public class AdminController extends HttpServlet {
                 if (username == null || email == null || password == null || roleName == null ||
                     username.trim().isEmpty() || email.trim().isEmpty() || password.trim().isEmpty()) {
                     request.setAttribute("error", "All required fields must be filled");
-                    List<User> users = userService.findAll();
-                    request.setAttribute("users", users);
-                    request.setAttribute("user", user);
+                    setUsersPage(request, null);
+                    request.setAttribute("principal", user);
                     request.getRequestDispatcher("/pages/admin/users.jsp").forward(request, response);
                     return;
                 }
@@ -185,21 +185,18 @@ public class AdminController extends HttpServlet {
             } catch (Exception e) {
                 logger.error("Error creating user", e);
                 request.setAttribute("error", "Error creating user: " + e.getMessage());
-                List<User> users = userService.findAll();
-                request.setAttribute("users", users);
-                request.setAttribute("user", user);
+                setUsersPage(request, null);
+                request.setAttribute("principal", user);
                 request.getRequestDispatcher("/pages/admin/users.jsp").forward(request, response);
             }
-        } else if (pathInfo != null && pathInfo.startsWith("/competition/edit/")) {
+        } else if (route == Route.ADMIN_EDIT_COMPETITION) {
             try {
-                String competitionIdStr = pathInfo.substring("/competition/edit/".length());
-                int competitionId = Integer.parseInt(competitionIdStr);
-                Optional<Competition> competitionOptional = competitionService.findById(competitionId);
+                Optional<Competition> competitionOptional = competitionService.findById(match.getInt("competitionId"));
                 
                 if (competitionOptional.isPresent()) {
                     Competition competition = competitionOptional.get();
                     request.setAttribute("competition", competition);
-                    request.setAttribute("user", user);
+                    request.setAttribute("principal", user);
                     request.getRequestDispatcher("/pages/admin/edit-competition.jsp").forward(request, response);
                 } else {
                     response.sendRedirect(request.getContextPath() + "/admin/competitions");
@@ -208,16 +205,15 @@ public class AdminController extends HttpServlet {
                 logger.error("Error loading competition for edit", e);
                 response.sendRedirect(request.getContextPath() + "/admin/competitions");
             }
-        } else if (pathInfo != null && pathInfo.equals("/competition/update")) {
+        } else if (route == Route.ADMIN_UPDATE_COMPETITION) {
             try {
                 int competitionId = Integer.parseInt(request.getParameter("id"));
                 Optional<Competition> competitionOptional = competitionService.findById(competitionId);
                 
                 if (competitionOptional.isEmpty()) {
                     request.setAttribute("error", "Competition not found");
-                    List<Competition> competitions = competitionService.findAll();
-                    request.setAttribute("competitions", competitions);
-                    request.setAttribute("user", user);
+                    setCompetitionsPage(request, null);
+                    request.setAttribute("principal", user);
                     request.getRequestDispatcher("/pages/admin/competitions.jsp").forward(request, response);
                     return;
                 }
@@ -231,14 +227,27 @@ public class AdminController extends HttpServlet {
             } catch (Exception e) {
                 logger.error("Error updating competition", e);
                 request.setAttribute("error", "Error updating competition: " + e.getMessage());
-                List<Competition> competitions = competitionService.findAll();
-                request.setAttribute("competitions", competitions);
-                request.setAttribute("user", user);
+                setCompetitionsPage(request, null);
+                request.setAttribute("principal", user);
                 request.getRequestDispatcher("/pages/admin/competitions.jsp").forward(request, response);
             }
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
+    private void setCompetitionsPage(HttpServletRequest request, String cursor) {
+        Page<Competition> page = competitionService.findPage(cursor, PAGE_SIZE);
+        request.setAttribute("competitions", page.getItems());
+        request.setAttribute("page", page);
+    }
+
+    private void setUsersPage(HttpServletRequest request, String cursor) {
+        Page<User> page = userService.findPage(cursor, PAGE_SIZE);
+        request.setAttribute("users", page.getItems());
+        request.setAttribute("page", page);
+    }
+
     private void generateCompetitionFromRequest(HttpServletRequest request, Competition competition) {
         competition.setTitle(request.getParameter("title"));
         competition.setDescription(request.getParameter("description"));
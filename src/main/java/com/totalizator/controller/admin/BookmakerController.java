@@ -2,11 +2,15 @@ package com.totalizator.controller.admin;
 
 import com.totalizator.dao.BookmakerDao;
 import com.totalizator.model.Competition;
-import com.totalizator.model.User;
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.routing.Route;
+import com.totalizator.routing.RouteMatch;
 import com.totalizator.service.CompetitionService;
+import com.totalizator.service.cache.CompetitionCache;
 import com.totalizator.service.factory.DaoFactory;
 import com.totalizator.service.factory.ServiceFactory;
-import com.totalizator.util.ValidationUtil;
+import com.totalizator.util.AuthStore;
+import com.totalizator.util.ConditionalGet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,71 +30,68 @@ import java.util.Optional;
 public class BookmakerController extends HttpServlet {
     private static final Logger logger = LogManager.getLogger();
     private CompetitionService competitionService;
+    private CompetitionCache competitionCache;
     private BookmakerDao bookmakerDao;
-    private ValidationUtil validationUtil;
 
     @Override
     public void init() throws ServletException {
         super.init();
         ServiceFactory serviceFactory = ServiceFactory.getInstance();
         competitionService = serviceFactory.getCompetitionService();
+        competitionCache = serviceFactory.getCompetitionCache();
         bookmakerDao = DaoFactory.getInstance().getBookmakerDao();
-        validationUtil = new ValidationUtil();
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        if (!validationUtil.requireAuthentication(request, response)
-                || !validationUtil.requireRole(request, response, "BOOKMAKER")) {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
 
-        User user = validationUtil.getUserFromSession(request);
+        UserPrincipal user = AuthStore.getPrincipal(request);
 
-        String pathInfo = request.getPathInfo();
-
-        if (pathInfo == null || pathInfo.equals("/")) {
+        if (match.getRoute() == Route.BOOKMAKER_COMPETITIONS) {
+            if (ConditionalGet.isNotModified(request, response,
+                    competitionCache.getVersion(), competitionCache.getLastModifiedMillis())) {
+                return;
+            }
 
             List<Competition> competitions = competitionService.findAll();
             request.setAttribute("competitions", competitions);
-            request.setAttribute("user", user);
+            request.setAttribute("principal", user);
             request.getRequestDispatcher("/pages/bookmaker/competitions.jsp").forward(request, response);
-        } else if (pathInfo.startsWith("/competition/")) {
-            String competitionIdStr = pathInfo.substring("/competition/".length());
-            try {
-                int competitionId = Integer.parseInt(competitionIdStr);
-                Optional<Competition> competitionOptional = competitionService.findById(competitionId);
-
-                if (competitionOptional.isPresent()) {
-                    Competition competition = competitionOptional.get();
-
-                    request.setAttribute("competition", competition);
-                    request.setAttribute("user", user);
-                    request.getRequestDispatcher("/pages/bookmaker/set-odds.jsp").forward(request, response);
-                } else {
-                    response.sendRedirect(request.getContextPath() + "/bookmaker/");
-                }
-            } catch (NumberFormatException e) {
-                logger.error("Invalid competition ID", e);
+        } else if (match.getRoute() == Route.BOOKMAKER_ODDS_FORM) {
+            Optional<Competition> competitionOptional = competitionService.findById(match.getInt("competitionId"));
+
+            if (competitionOptional.isPresent()) {
+                Competition competition = competitionOptional.get();
+
+                request.setAttribute("competition", competition);
+                request.setAttribute("principal", user);
+                request.getRequestDispatcher("/pages/bookmaker/set-odds.jsp").forward(request, response);
+            } else {
                 response.sendRedirect(request.getContextPath() + "/bookmaker/");
             }
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
-        if (!validationUtil.requireAuthentication(request, response)
-                || !validationUtil.requireRole(request, response, "BOOKMAKER")) {
+        RouteMatch match = RouteMatch.from(request);
+        if (match == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
 
-        User user = validationUtil.getUserFromSession(request);
-
-        String pathInfo = request.getPathInfo();
+        UserPrincipal user = AuthStore.getPrincipal(request);
 
-        if (pathInfo != null && pathInfo.equals("/odds/update")) {
+        if (match.getRoute() == Route.BOOKMAKER_UPDATE_ODDS) {
             try {
                 int competitionId = Integer.parseInt(request.getParameter("competitionId"));
 
@@ -112,6 +113,8 @@ public class BookmakerController extends HttpServlet {
                 logger.error("Error updating odds", e);
                 response.sendRedirect(request.getContextPath() + "/bookmaker/");
             }
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 }
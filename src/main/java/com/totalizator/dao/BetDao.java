@@ -2,11 +2,21 @@ package com.totalizator.dao;
 
 import com.totalizator.model.Bet;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface BetDao extends Dao<Bet, Integer> {
     List<Bet> findByUserId(Integer userId);
+    Page<Bet> findPageByUserId(Integer userId, String cursor, int limit);
     List<Bet> findByCompetitionId(Integer competitionId);
+    Stream<Bet> streamByCompetitionId(Integer competitionId);
+    List<Bet> findPendingChunk(Integer competitionId, int afterBetId, int limit);
+    Stream<Bet> streamByCreatedAtBetween(LocalDateTime from, LocalDateTime to);
+    boolean updateStatus(Integer betId, Bet.BetStatus expected, Bet.BetStatus status);
+    int settlePendingBets(Integer competitionId);
+    int settleBatch(List<Bet> bets);
+    boolean[] placeBatch(List<Bet> bets);
 }
 
@@ -1,9 +1,13 @@
 package com.totalizator.dao;
 
+import com.totalizator.model.OddsSnapshot;
+
 import java.math.BigDecimal;
 
 public interface BookmakerDao {
     boolean updateOddsCompetition(int competitionId, BigDecimal winMultiplier, BigDecimal drawMultiplier, BigDecimal lossMultiplier,
                                   BigDecimal exactScoreMultiplier, BigDecimal totalOverMultiplier,
                                   BigDecimal totalUnderMultiplier);
+
+    OddsSnapshot findOdds(int competitionId);
 }
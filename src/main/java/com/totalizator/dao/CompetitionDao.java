@@ -7,5 +7,6 @@ import java.util.List;
 
 public interface CompetitionDao extends Dao<Competition, Integer> {
     List<Competition> findByStatus(String status);
+    Page<Competition> findPageByStatus(String status, String cursor, int limit);
 }
 
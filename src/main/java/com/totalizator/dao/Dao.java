@@ -6,6 +6,7 @@ import java.util.Optional;
 public interface Dao<T, K> {
     Optional<T> findById(K id);
     List<T> findAll();
+    Page<T> findPage(String cursor, int limit);
     T save(T entity);
     boolean update(T entity);
     boolean deleteById(K id);
@@ -0,0 +1,64 @@
+package com.totalizator.dao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+
+public final class Page<T> {
+    private static final Page<?> EMPTY = new Page<>(Collections.emptyList(), null, null);
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public Page(List<T> items, String nextCursor, String previousCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Page<T> empty() {
+        return (Page<T>) EMPTY;
+    }
+
+
+    public static <T> Page<T> fromRows(List<T> rows, int limit, PageCursor cursor,
+                                       Function<T, LocalDateTime> sortKey, ToIntFunction<T> idKey) {
+        boolean backward = cursor != null && cursor.isBackward();
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        if (backward) {
+            Collections.reverse(items);
+        }
+        if (items.isEmpty()) {
+            return new Page<>(items, null, null);
+        }
+
+        boolean moreAfter = backward || hasMore;
+        boolean moreBefore = backward ? hasMore : cursor != null;
+        T first = items.get(0);
+        T last = items.get(items.size() - 1);
+        String next = moreAfter ? PageCursor.after(sortKey.apply(last), idKey.applyAsInt(last)).encode() : null;
+        String previous = moreBefore
+                ? PageCursor.before(sortKey.apply(first), idKey.applyAsInt(first)).encode()
+                : null;
+        return new Page<>(items, next, previous);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+}
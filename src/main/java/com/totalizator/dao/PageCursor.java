@@ -0,0 +1,71 @@
+package com.totalizator.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+
+public final class PageCursor {
+    private static final char AFTER = 'a';
+    private static final char BEFORE = 'b';
+    private static final String SEPARATOR = "|";
+
+    private final boolean backward;
+    private final LocalDateTime sortValue;
+    private final int id;
+
+    private PageCursor(boolean backward, LocalDateTime sortValue, int id) {
+        this.backward = backward;
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static PageCursor after(LocalDateTime sortValue, int id) {
+        return new PageCursor(false, sortValue, id);
+    }
+
+    public static PageCursor before(LocalDateTime sortValue, int id) {
+        return new PageCursor(true, sortValue, id);
+    }
+
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || parts[0].length() != 1) {
+                return null;
+            }
+            char direction = parts[0].charAt(0);
+            if (direction != AFTER && direction != BEFORE) {
+                return null;
+            }
+            LocalDateTime sortValue = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new PageCursor(direction == BEFORE, sortValue, Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw = (backward ? BEFORE : AFTER) + SEPARATOR
+                + (sortValue != null ? sortValue.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isBackward() {
+        return backward;
+    }
+
+    public LocalDateTime getSortValue() {
+        return sortValue;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
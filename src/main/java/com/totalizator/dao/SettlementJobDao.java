@@ -0,0 +1,16 @@
+package com.totalizator.dao;
+
+import com.totalizator.model.SettlementJob;
+
+import java.util.List;
+import java.util.Optional;
+
+
+public interface SettlementJobDao {
+    void enqueue(int competitionId);
+    Optional<SettlementJob> claimNext(int afterJobId, int leaseSeconds);
+    boolean checkpoint(int jobId, int previousLastBetId, int lastBetId, int settledBets);
+    void complete(int jobId);
+    void fail(int jobId, String error, int maxAttempts, long retryDelaySeconds);
+    List<SettlementJob> findRecent(int limit);
+}
@@ -2,6 +2,7 @@ package com.totalizator.dao;
 
 import com.totalizator.model.User;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 
@@ -12,5 +13,11 @@ public interface UserDao extends Dao<User, Integer> {
     
     
     Optional<User> findByEmail(String email);
+    
+    
+    boolean debitBalance(Integer userId, BigDecimal amount);
+    
+    
+    boolean creditBalance(Integer userId, BigDecimal amount);
 }
 
@@ -1,66 +1,154 @@
 package com.totalizator.dao.impl;
 
 import com.totalizator.dao.BetDao;
-import com.totalizator.dao.CompetitionDao;
-import com.totalizator.dao.UserDao;
+import com.totalizator.dao.Page;
 import com.totalizator.model.Bet;
 import com.totalizator.model.BetType;
 import com.totalizator.model.Competition;
 import com.totalizator.model.User;
 import com.totalizator.util.ConnectionPool;
+import com.totalizator.util.TransactionManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 
 public class BetDaoImpl implements BetDao {
     private static final Logger logger = LogManager.getLogger();
+    private static final int MONEY_SCALE = 2;
     private final ConnectionPool connectionPool;
-    private final UserDao userDao;
-    private final CompetitionDao competitionDao;
 
-    private static final String FIND_BY_ID = "SELECT b.id, b.user_id, b.competition_id, b.bet_type_id, " +
+    private static final String SELECT_BETS = "SELECT b.id, b.user_id, b.competition_id, b.bet_type_id, " +
             "b.amount, b.predicted_value, b.status, b.win_amount, b.created_at, b.updated_at, " +
-            "bt.name as bet_type_name, bt.description as bet_type_description, bt.multiplier " +
-            "FROM bets b JOIN bet_types bt ON b.bet_type_id = bt.id WHERE b.id = ?";
+            "bt.name as bet_type_name, bt.description as bet_type_description, bt.multiplier, " +
+            "u.id as u_id, u.username as u_username, u.email as u_email, u.password as u_password, " +
+            "u.first_name as u_first_name, u.last_name as u_last_name, u.role_id as u_role_id, " +
+            "u.balance as u_balance, u.is_active as u_is_active, u.created_at as u_created_at, " +
+            "u.updated_at as u_updated_at, r.name as u_role_name, r.description as u_role_description, " +
+            "c.id as c_id, c.title as c_title, c.description as c_description, c.sport_type as c_sport_type, " +
+            "c.start_date as c_start_date, c.end_date as c_end_date, c.status as c_status, c.result as c_result, " +
+            "c.team1 as c_team1, c.team2 as c_team2, c.score1 as c_score1, c.score2 as c_score2, " +
+            "c.created_at as c_created_at, c.updated_at as c_updated_at " +
+            "FROM bets b JOIN bet_types bt ON b.bet_type_id = bt.id " +
+            "JOIN users u ON b.user_id = u.id JOIN roles r ON u.role_id = r.id " +
+            "JOIN competitions c ON b.competition_id = c.id ";
+
+    private static final String FIND_BY_ID = SELECT_BETS + "WHERE b.id = ?";
     
-    private static final String FIND_ALL = "SELECT b.id, b.user_id, b.competition_id, b.bet_type_id, " +
-            "b.amount, b.predicted_value, b.status, b.win_amount, b.created_at, b.updated_at, " +
-            "bt.name as bet_type_name, bt.description as bet_type_description, bt.multiplier " +
-            "FROM bets b JOIN bet_types bt ON b.bet_type_id = bt.id ORDER BY b.created_at DESC";
+    private static final String FIND_ALL = SELECT_BETS + "ORDER BY b.created_at DESC";
     
-    private static final String FIND_BY_USER_ID = "SELECT b.id, b.user_id, b.competition_id, b.bet_type_id, " +
-            "b.amount, b.predicted_value, b.status, b.win_amount, b.created_at, b.updated_at, " +
-            "bt.name as bet_type_name, bt.description as bet_type_description, bt.multiplier " +
-            "FROM bets b JOIN bet_types bt ON b.bet_type_id = bt.id WHERE b.user_id = ? ORDER BY b.created_at DESC";
+    private static final String FIND_BY_USER_ID = SELECT_BETS + "WHERE b.user_id = ? ORDER BY b.created_at DESC";
     
-    private static final String FIND_BY_COMPETITION_ID = "SELECT b.id, b.user_id, b.competition_id, b.bet_type_id, " +
-            "b.amount, b.predicted_value, b.status, b.win_amount, b.created_at, b.updated_at, " +
-            "bt.name as bet_type_name, bt.description as bet_type_description, bt.multiplier " +
-            "FROM bets b JOIN bet_types bt ON b.bet_type_id = bt.id WHERE b.competition_id = ? ORDER BY b.created_at DESC";
+    private static final String FIND_BY_COMPETITION_ID = SELECT_BETS +
+            "WHERE b.competition_id = ? ORDER BY b.created_at DESC";
+
+    private static final String STREAM_BY_COMPETITION_ID = SELECT_BETS +
+            "WHERE b.competition_id = ? ORDER BY b.id";
+
+    private static final String FIND_PENDING_CHUNK = SELECT_BETS +
+            "WHERE b.competition_id = ? AND b.status = 'PENDING' AND b.id > ? ORDER BY b.id LIMIT ?";
+
+    private static final String STREAM_BY_CREATED_AT = SELECT_BETS +
+            "WHERE b.created_at >= ? AND b.created_at < ? ORDER BY b.created_at, b.id";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String PAGE_ORDER = "ORDER BY b.created_at DESC, b.id DESC LIMIT ?";
+    private static final String PAGE_ORDER_REVERSED = "ORDER BY b.created_at ASC, b.id ASC LIMIT ?";
+    private static final String PAGE_AFTER = "(b.created_at < ? OR (b.created_at = ? AND b.id < ?)) ";
+    private static final String PAGE_BEFORE = "(b.created_at > ? OR (b.created_at = ? AND b.id > ?)) ";
+
+    private static final KeysetPager<Bet> PAGER = new KeysetPager<>(
+            SELECT_BETS + PAGE_ORDER,
+            SELECT_BETS + "WHERE " + PAGE_AFTER + PAGE_ORDER,
+            SELECT_BETS + "WHERE " + PAGE_BEFORE + PAGE_ORDER_REVERSED,
+            Bet::getCreatedAt, Bet::getId);
+
+    private static final KeysetPager<Bet> USER_PAGER = new KeysetPager<>(
+            SELECT_BETS + "WHERE b.user_id = ? " + PAGE_ORDER,
+            SELECT_BETS + "WHERE b.user_id = ? AND " + PAGE_AFTER + PAGE_ORDER,
+            SELECT_BETS + "WHERE b.user_id = ? AND " + PAGE_BEFORE + PAGE_ORDER_REVERSED,
+            Bet::getCreatedAt, Bet::getId);
     
     private static final String INSERT = "INSERT INTO bets (user_id, competition_id, bet_type_id, " +
             "amount, predicted_value, status, win_amount) VALUES (?, ?, ?, ?, ?, ?, ?)";
-    
+
+    private static final String INSERT_ROW = ", (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int INSERT_COLUMNS = 7;
+
+    private static final int MAX_INSERT_ROWS = 64;
+
+    private static final String[] MULTI_ROW_INSERTS = multiRowInserts();
+
     private static final String UPDATE = "UPDATE bets SET user_id = ?, competition_id = ?, bet_type_id = ?, " +
             "amount = ?, predicted_value = ?, status = ?, win_amount = ? WHERE id = ?";
     
     private static final String DELETE = "DELETE FROM bets WHERE id = ?";
 
+    private static final String UPDATE_STATUS = "UPDATE bets SET status = ? WHERE id = ? AND status = ?";
+
+    private static final String WINNING_BET = "c.score1 IS NOT NULL AND c.score2 IS NOT NULL AND (" +
+            "(bt.name = 'WIN' AND ((c.result = 'WIN_TEAM1' AND CAST(b.predicted_value AS BINARY) = 'TEAM1') " +
+            "OR (c.result = 'WIN_TEAM2' AND CAST(b.predicted_value AS BINARY) = 'TEAM2'))) " +
+            "OR (bt.name = 'DRAW' AND c.result = 'DRAW' AND CAST(b.predicted_value AS BINARY) = 'DRAW') " +
+            "OR (bt.name = 'LOSS' AND ((c.result = 'WIN_TEAM2' AND CAST(b.predicted_value AS BINARY) = 'TEAM1') " +
+            "OR (c.result = 'WIN_TEAM1' AND CAST(b.predicted_value AS BINARY) = 'TEAM2'))) " +
+            "OR (bt.name = 'EXACT_SCORE' " +
+            "AND CAST(b.predicted_value AS BINARY) = CAST(CONCAT(c.score1, ':', c.score2) AS BINARY)) " +
+            "OR (bt.name IN ('TOTAL_OVER', 'TOTAL_UNDER') AND b.predicted_value REGEXP '^[0-9]{1,5}([.][0-9])?$' " +
+            "AND ((bt.name = 'TOTAL_OVER' AND c.score1 + c.score2 > CAST(b.predicted_value AS DECIMAL(6,1))) " +
+            "OR (bt.name = 'TOTAL_UNDER' AND c.score1 + c.score2 < CAST(b.predicted_value AS DECIMAL(6,1))))))";
+
+    private static final String COMPETITION_ODDS_JOIN = "LEFT JOIN competition_bet_types cbt " +
+            "ON cbt.competition_id = b.competition_id AND cbt.bet_type_id = b.bet_type_id ";
+
+    private static final String COMPETITION_MULTIPLIER = "COALESCE(cbt.multiplier, bt.multiplier)";
+
+    private static final String SETTLE_BET = "UPDATE bets SET status = ?, win_amount = ? " +
+            "WHERE id = ? AND status = 'PENDING'";
+
+    private static final String CREDIT_BALANCE = "UPDATE users SET balance = balance + ? WHERE id = ?";
+
+    private static final String LOCK_PENDING = "SELECT COUNT(*) FROM bets " +
+            "WHERE competition_id = ? AND status = 'PENDING' FOR UPDATE";
+
+    private static final String CREDIT_WINNERS = "UPDATE users u JOIN (" +
+            "SELECT b.user_id, SUM(ROUND(b.amount * " + COMPETITION_MULTIPLIER + ", 2)) AS total FROM bets b " +
+            "JOIN bet_types bt ON b.bet_type_id = bt.id JOIN competitions c ON b.competition_id = c.id " +
+            COMPETITION_ODDS_JOIN +
+            "WHERE b.competition_id = ? AND b.status = 'PENDING' AND " + WINNING_BET + " " +
+            "GROUP BY b.user_id) w ON u.id = w.user_id SET u.balance = u.balance + w.total";
+
+    private static final String MARK_PENDING = "UPDATE bets b " +
+            "JOIN bet_types bt ON b.bet_type_id = bt.id JOIN competitions c ON b.competition_id = c.id " +
+            COMPETITION_ODDS_JOIN +
+            "SET b.status = CASE WHEN " + WINNING_BET + " THEN 'WON' ELSE 'LOST' END, " +
+            "b.win_amount = CASE WHEN " + WINNING_BET + " THEN ROUND(b.amount * " + COMPETITION_MULTIPLIER + ", 2) " +
+            "ELSE b.win_amount END " +
+            "WHERE b.competition_id = ? AND b.status = 'PENDING'";
+
     
-    public BetDaoImpl(ConnectionPool connectionPool, UserDao userDao, CompetitionDao competitionDao) {
+    public BetDaoImpl(ConnectionPool connectionPool) {
         this.connectionPool = connectionPool;
-        this.userDao = userDao;
-        this.competitionDao = competitionDao;
     }
 
     @Override
@@ -70,7 +158,7 @@ public class BetDaoImpl implements BetDao {
             statement.setInt(1, id);
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return Optional.of(mapResultSetToBet(resultSet));
+                    return Optional.of(new BetRowMapper(true).map(resultSet));
                 }
             }
         } catch (SQLException e) {
@@ -84,11 +172,12 @@ public class BetDaoImpl implements BetDao {
     @Override
     public List<Bet> findAll() {
         List<Bet> bets = new ArrayList<>();
+        BetRowMapper mapper = new BetRowMapper(true);
         Connection connection = connectionPool.getConnection();
         try (PreparedStatement statement = connection.prepareStatement(FIND_ALL);
              ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
-                bets.add(mapResultSetToBet(resultSet));
+                bets.add(mapper.map(resultSet));
             }
         } catch (SQLException e) {
             logger.error("Error finding all bets", e);
@@ -101,12 +190,13 @@ public class BetDaoImpl implements BetDao {
     @Override
     public List<Bet> findByUserId(Integer userId) {
         List<Bet> bets = new ArrayList<>();
+        BetRowMapper mapper = new BetRowMapper(true);
         Connection connection = connectionPool.getConnection();
         try (PreparedStatement statement = connection.prepareStatement(FIND_BY_USER_ID)) {
             statement.setInt(1, userId);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    bets.add(mapResultSetToBet(resultSet));
+                    bets.add(mapper.map(resultSet));
                 }
             }
         } catch (SQLException e) {
@@ -120,12 +210,13 @@ public class BetDaoImpl implements BetDao {
     @Override
     public List<Bet> findByCompetitionId(Integer competitionId) {
         List<Bet> bets = new ArrayList<>();
+        BetRowMapper mapper = new BetRowMapper(true);
         Connection connection = connectionPool.getConnection();
         try (PreparedStatement statement = connection.prepareStatement(FIND_BY_COMPETITION_ID)) {
             statement.setInt(1, competitionId);
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    bets.add(mapResultSetToBet(resultSet));
+                    bets.add(mapper.map(resultSet));
                 }
             }
         } catch (SQLException e) {
@@ -136,6 +227,78 @@ public class BetDaoImpl implements BetDao {
         return bets;
     }
 
+    @Override
+    public List<Bet> findPendingChunk(Integer competitionId, int afterBetId, int limit) {
+        List<Bet> bets = new ArrayList<>(limit);
+        BetRowMapper mapper = new BetRowMapper(true);
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_PENDING_CHUNK)) {
+            statement.setInt(1, competitionId);
+            statement.setInt(2, afterBetId);
+            statement.setInt(3, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    bets.add(mapper.map(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading pending bets of competition " + competitionId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+        return bets;
+    }
+
+    @Override
+    public Stream<Bet> streamByCompetitionId(Integer competitionId) {
+        try {
+            return ResultSetStream.open(connectionPool, STREAM_BY_COMPETITION_ID, (statement, index) -> {
+                statement.setInt(index, competitionId);
+                return index + 1;
+            }, STREAM_FETCH_SIZE, new BetRowMapper(false)::map);
+        } catch (SQLException e) {
+            logger.error("Error streaming bets by competition id: {}", competitionId, e);
+            return Stream.empty();
+        }
+    }
+
+    @Override
+    public Stream<Bet> streamByCreatedAtBetween(LocalDateTime from, LocalDateTime to) {
+        try {
+            return ResultSetStream.open(connectionPool, STREAM_BY_CREATED_AT, (statement, index) -> {
+                statement.setTimestamp(index, Timestamp.valueOf(from));
+                statement.setTimestamp(index + 1, Timestamp.valueOf(to));
+                return index + 2;
+            }, STREAM_FETCH_SIZE, new BetRowMapper(false)::map);
+        } catch (SQLException e) {
+            logger.error("Error streaming bets created between {} and {}", from, to, e);
+            return Stream.empty();
+        }
+    }
+
+    @Override
+    public Page<Bet> findPage(String cursor, int limit) {
+        try {
+            return PAGER.findPage(connectionPool, null, cursor, limit, new BetRowMapper(true)::map);
+        } catch (SQLException e) {
+            logger.error("Error finding bets page", e);
+            return Page.empty();
+        }
+    }
+
+    @Override
+    public Page<Bet> findPageByUserId(Integer userId, String cursor, int limit) {
+        try {
+            return USER_PAGER.findPage(connectionPool, (statement, index) -> {
+                statement.setInt(index, userId);
+                return index + 1;
+            }, cursor, limit, new BetRowMapper(true)::map);
+        } catch (SQLException e) {
+            logger.error("Error finding bets page by user id: {}", userId, e);
+            return Page.empty();
+        }
+    }
+
     @Override
     public Bet save(Bet bet) {
         Connection connection = connectionPool.getConnection();
@@ -166,18 +329,109 @@ public class BetDaoImpl implements BetDao {
     }
 
     private void changeBetToStatement(Bet bet, PreparedStatement statement) throws SQLException {
-        statement.setInt(1, bet.getUser().getId());
-        statement.setInt(2, bet.getCompetition().getId());
-        statement.setInt(3, bet.getBetType().getId());
-        statement.setBigDecimal(4, bet.getAmount());
-        statement.setString(5, bet.getPredictedValue());
-        statement.setString(6, bet.getStatus().name());
+        changeBetToStatement(bet, statement, 0);
+    }
+
+    private void changeBetToStatement(Bet bet, PreparedStatement statement, int offset) throws SQLException {
+        statement.setInt(offset + 1, bet.getUser().getId());
+        statement.setInt(offset + 2, bet.getCompetition().getId());
+        statement.setInt(offset + 3, bet.getBetType().getId());
+        statement.setBigDecimal(offset + 4, bet.getAmount());
+        statement.setString(offset + 5, bet.getPredictedValue());
+        statement.setString(offset + 6, bet.getStatus().name());
 
         if (bet.getWinAmount() != null) {
-            statement.setBigDecimal(7, bet.getWinAmount());
+            statement.setBigDecimal(offset + 7, bet.getWinAmount());
         } else {
-            statement.setNull(7, java.sql.Types.DECIMAL);
+            statement.setNull(offset + 7, java.sql.Types.DECIMAL);
+        }
+    }
+
+    @Override
+    public boolean[] placeBatch(List<Bet> bets) {
+        return TransactionManager.inTransaction(() -> {
+            Connection connection = connectionPool.getConnection();
+            try {
+                boolean[] debited = debitBalances(connection, bets);
+                List<Bet> accepted = new ArrayList<>(bets.size());
+                for (int i = 0; i < bets.size(); i++) {
+                    if (debited[i]) {
+                        accepted.add(bets.get(i));
+                    }
+                }
+                if (!accepted.isEmpty()) {
+                    insertAll(connection, accepted);
+                }
+                return debited;
+            } finally {
+                connectionPool.releaseConnection(connection);
+            }
+        });
+    }
+
+    private static boolean[] debitBalances(Connection connection, List<Bet> bets) throws SQLException {
+        Integer[] order = new Integer[bets.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> bets.get(i).getUser().getId()));
+
+        try (PreparedStatement statement = connection.prepareStatement(UserDaoImpl.DEBIT_BALANCE)) {
+            for (Integer index : order) {
+                Bet bet = bets.get(index);
+                UserDaoImpl.bindDebit(statement, bet.getUser().getId(), bet.getAmount());
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            boolean[] debited = new boolean[bets.size()];
+            for (int i = 0; i < order.length; i++) {
+                debited[order[i]] = counts[i] > 0;
+            }
+            return debited;
+        }
+    }
+
+    private void insertAll(Connection connection, List<Bet> bets) throws SQLException {
+        int from = 0;
+        while (from < bets.size()) {
+            int rows = Math.min(MAX_INSERT_ROWS, Integer.highestOneBit(bets.size() - from));
+            insertRows(connection, bets.subList(from, from + rows));
+            from += rows;
         }
+        logger.info("Saved {} bets in one batch", bets.size());
+    }
+
+    private void insertRows(Connection connection, List<Bet> bets) throws SQLException {
+        String sql = MULTI_ROW_INSERTS[Integer.numberOfTrailingZeros(bets.size())];
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < bets.size(); i++) {
+                changeBetToStatement(bets.get(i), statement, i * INSERT_COLUMNS);
+            }
+            if (statement.executeUpdate() != bets.size()) {
+                throw new SQLException("Creating bets failed, not all rows inserted.");
+            }
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Bet bet : bets) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Creating bets failed, no ID obtained.");
+                    }
+                    bet.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    private static String[] multiRowInserts() {
+        String[] inserts = new String[Integer.numberOfTrailingZeros(MAX_INSERT_ROWS) + 1];
+        StringBuilder sql = new StringBuilder(INSERT);
+        for (int rows = 1, i = 0; i < inserts.length; i++) {
+            while (rows < 1 << i) {
+                sql.append(INSERT_ROW);
+                rows++;
+            }
+            inserts[i] = sql.toString();
+        }
+        return inserts;
     }
 
     @Override
@@ -199,6 +453,22 @@ public class BetDaoImpl implements BetDao {
         }
     }
 
+    @Override
+    public boolean updateStatus(Integer betId, Bet.BetStatus expected, Bet.BetStatus status) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+            statement.setString(1, status.name());
+            statement.setInt(2, betId);
+            statement.setString(3, expected.name());
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Error updating status of bet: {}", betId, e);
+            return false;
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
     @Override
     public boolean deleteById(Integer id) {
         Connection connection = connectionPool.getConnection();
@@ -215,52 +485,163 @@ public class BetDaoImpl implements BetDao {
         }
     }
 
-    
-    private Bet mapResultSetToBet(ResultSet resultSet) throws SQLException {
-        Bet bet = new Bet();
-        bet.setId(resultSet.getInt("id"));
-        bet.setAmount(resultSet.getBigDecimal("amount"));
-        bet.setPredictedValue(resultSet.getString("predicted_value"));
-        
-        String statusStr = resultSet.getString("status");
-        if (statusStr != null) {
+    @Override
+    public int settlePendingBets(Integer competitionId) {
+        return TransactionManager.inTransaction(() -> {
+            Connection connection = connectionPool.getConnection();
             try {
-                bet.setStatus(Bet.BetStatus.valueOf(statusStr));
-            } catch (IllegalArgumentException e) {
-                bet.setStatus(Bet.BetStatus.PENDING);
+                int pending;
+                try (PreparedStatement statement = connection.prepareStatement(LOCK_PENDING)) {
+                    statement.setInt(1, competitionId);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        pending = resultSet.getInt(1);
+                    }
+                }
+                if (pending > 0) {
+                    try (PreparedStatement statement = connection.prepareStatement(CREDIT_WINNERS)) {
+                        statement.setInt(1, competitionId);
+                        statement.executeUpdate();
+                    }
+                    try (PreparedStatement statement = connection.prepareStatement(MARK_PENDING)) {
+                        statement.setInt(1, competitionId);
+                        pending = statement.executeUpdate();
+                    }
+                }
+                logger.info("Settled {} bets for competition {}", pending, competitionId);
+                return pending;
+            } finally {
+                connectionPool.releaseConnection(connection);
             }
+        });
+    }
+
+    @Override
+    public int settleBatch(List<Bet> bets) {
+        return TransactionManager.inTransaction(() -> {
+            Connection connection = connectionPool.getConnection();
+            try {
+                try (PreparedStatement statement = connection.prepareStatement(SETTLE_BET)) {
+                    BigDecimal[] winAmounts = new BigDecimal[bets.size()];
+                    for (int i = 0; i < bets.size(); i++) {
+                        Bet bet = bets.get(i);
+                        statement.setString(1, bet.getStatus().name());
+                        if (bet.getWinAmount() != null) {
+                            winAmounts[i] = bet.getWinAmount().setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+                            statement.setBigDecimal(2, winAmounts[i]);
+                        } else {
+                            statement.setNull(2, java.sql.Types.DECIMAL);
+                        }
+                        statement.setInt(3, bet.getId());
+                        statement.addBatch();
+                    }
+                    int[] counts = statement.executeBatch();
+                    Map<Integer, BigDecimal> credits = new TreeMap<>();
+                    int settled = 0;
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            continue;
+                        }
+                        settled++;
+                        Bet bet = bets.get(i);
+                        if (bet.getStatus() == Bet.BetStatus.WON) {
+                            credits.merge(bet.getUser().getId(), winAmounts[i], BigDecimal::add);
+                        }
+                    }
+                    creditWinners(connection, credits);
+                    return settled;
+                }
+            } finally {
+                connectionPool.releaseConnection(connection);
+            }
+        });
+    }
+
+    private static void creditWinners(Connection connection, Map<Integer, BigDecimal> credits) throws SQLException {
+        if (credits.isEmpty()) {
+            return;
         }
-        
-        java.math.BigDecimal winAmount = resultSet.getBigDecimal("win_amount");
-        if (winAmount != null) {
-            bet.setWinAmount(winAmount);
-        }
-        
-        Timestamp createdAt = resultSet.getTimestamp("created_at");
-        if (createdAt != null) {
-            bet.setCreatedAt(createdAt.toLocalDateTime());
+        try (PreparedStatement statement = connection.prepareStatement(CREDIT_BALANCE)) {
+            for (Map.Entry<Integer, BigDecimal> credit : credits.entrySet()) {
+                statement.setBigDecimal(1, credit.getValue());
+                statement.setInt(2, credit.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
         }
-        
-        Timestamp updatedAt = resultSet.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            bet.setUpdatedAt(updatedAt.toLocalDateTime());
+    }
+
+    
+    private static final class BetRowMapper {
+        private final Map<Integer, User> users;
+        private final Map<Integer, Competition> competitions = new HashMap<>();
+        private final Map<Integer, BetType> betTypes = new HashMap<>();
+
+        private BetRowMapper(boolean shareUsers) {
+            this.users = shareUsers ? new HashMap<>() : null;
         }
 
-        int userId = resultSet.getInt("user_id");
-        Optional<User> user = userDao.findById(userId);
-        user.ifPresent(bet::setUser);
-        
-        int competitionId = resultSet.getInt("competition_id");
-        Optional<Competition> competition = competitionDao.findById(competitionId);
-        competition.ifPresent(bet::setCompetition);
-
-        BetType betType = new BetType();
-        betType.setId(resultSet.getInt("bet_type_id"));
-        betType.setName(resultSet.getString("bet_type_name"));
-        betType.setDescription(resultSet.getString("bet_type_description"));
-        betType.setMultiplier(resultSet.getBigDecimal("multiplier"));
-        bet.setBetType(betType);
-        
-        return bet;
+        private Bet map(ResultSet resultSet) throws SQLException {
+            Bet bet = new Bet();
+            bet.setId(resultSet.getInt("id"));
+            bet.setAmount(resultSet.getBigDecimal("amount"));
+            bet.setPredictedValue(resultSet.getString("predicted_value"));
+
+            String statusStr = resultSet.getString("status");
+            if (statusStr != null) {
+                try {
+                    bet.setStatus(Bet.BetStatus.valueOf(statusStr));
+                } catch (IllegalArgumentException e) {
+                    bet.setStatus(Bet.BetStatus.PENDING);
+                }
+            }
+
+            java.math.BigDecimal winAmount = resultSet.getBigDecimal("win_amount");
+            if (winAmount != null) {
+                bet.setWinAmount(winAmount);
+            }
+
+            Timestamp createdAt = resultSet.getTimestamp("created_at");
+            if (createdAt != null) {
+                bet.setCreatedAt(createdAt.toLocalDateTime());
+            }
+
+            Timestamp updatedAt = resultSet.getTimestamp("updated_at");
+            if (updatedAt != null) {
+                bet.setUpdatedAt(updatedAt.toLocalDateTime());
+            }
+
+            int userId = resultSet.getInt("user_id");
+            User user = users != null ? users.get(userId) : null;
+            if (user == null) {
+                user = UserDaoImpl.mapUser(resultSet, "u_");
+                if (users != null) {
+                    users.put(userId, user);
+                }
+            }
+            bet.setUser(user);
+
+            int competitionId = resultSet.getInt("competition_id");
+            Competition competition = competitions.get(competitionId);
+            if (competition == null) {
+                competition = CompetitionDaoImpl.mapCompetition(resultSet, "c_");
+                competitions.put(competitionId, competition);
+            }
+            bet.setCompetition(competition);
+
+            int betTypeId = resultSet.getInt("bet_type_id");
+            BetType betType = betTypes.get(betTypeId);
+            if (betType == null) {
+                betType = new BetType();
+                betType.setId(betTypeId);
+                betType.setName(resultSet.getString("bet_type_name"));
+                betType.setDescription(resultSet.getString("bet_type_description"));
+                betType.setMultiplier(resultSet.getBigDecimal("multiplier"));
+                betTypes.put(betTypeId, betType);
+            }
+            bet.setBetType(betType);
+
+            return bet;
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.totalizator.dao.impl;
 
 import com.totalizator.dao.Dao;
+import com.totalizator.dao.Page;
 import com.totalizator.model.BetType;
 import com.totalizator.util.ConnectionPool;
 import org.apache.logging.log4j.LogManager;
@@ -26,6 +27,12 @@ public class BetTypeDaoImpl implements Dao<BetType, Integer> {
     private static final String UPDATE = "UPDATE bet_types SET name = ?, description = ?, multiplier = ? WHERE id = ?";
     private static final String DELETE = "DELETE FROM bet_types WHERE id = ?";
 
+    private static final KeysetPager<BetType> PAGER = new KeysetPager<>(
+            "SELECT id, name, description, multiplier FROM bet_types ORDER BY id LIMIT ?",
+            "SELECT id, name, description, multiplier FROM bet_types WHERE id > ? ORDER BY id LIMIT ?",
+            "SELECT id, name, description, multiplier FROM bet_types WHERE id < ? ORDER BY id DESC LIMIT ?",
+            null, BetType::getId);
+
     
     public BetTypeDaoImpl(ConnectionPool connectionPool) {
         this.connectionPool = connectionPool;
@@ -66,6 +73,16 @@ public class BetTypeDaoImpl implements Dao<BetType, Integer> {
         return betTypes;
     }
 
+    @Override
+    public Page<BetType> findPage(String cursor, int limit) {
+        try {
+            return PAGER.findPage(connectionPool, null, cursor, limit, this::mapResultSetToBetType);
+        } catch (SQLException e) {
+            logger.error("Error finding bet types page", e);
+            return Page.empty();
+        }
+    }
+
     @Override
     public BetType save(BetType betType) {
         Connection connection = connectionPool.getConnection();
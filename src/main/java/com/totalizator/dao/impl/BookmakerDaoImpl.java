@@ -1,6 +1,8 @@
 package com.totalizator.dao.impl;
 
 import com.totalizator.dao.BookmakerDao;
+import com.totalizator.event.EventBus;
+import com.totalizator.model.OddsSnapshot;
 import com.totalizator.util.ConnectionPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -8,12 +10,19 @@ import org.apache.logging.log4j.Logger;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class BookmakerDaoImpl implements BookmakerDao {
     private static final String UPDATE_COMPETITION_BET_TYPE = "INSERT INTO competition_bet_types (competition_id, bet_type_id, multiplier) " +
             "VALUES (?, (SELECT id FROM bet_types WHERE name = ?), ?) " +
             "ON DUPLICATE KEY UPDATE multiplier = ?";
+    private static final String FIND_ODDS = "SELECT bt.id, COALESCE(cbt.multiplier, bt.multiplier) AS multiplier " +
+            "FROM bet_types bt LEFT JOIN competition_bet_types cbt " +
+            "ON cbt.bet_type_id = bt.id AND cbt.competition_id = ?";
 
     private final ConnectionPool connectionPool;
 
@@ -34,10 +43,40 @@ public class BookmakerDaoImpl implements BookmakerDao {
 
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            connectionPool.releaseConnection(connection);
         }
+
+        Map<String, BigDecimal> odds = new LinkedHashMap<>();
+        odds.put("WIN", winMultiplier);
+        odds.put("DRAW", drawMultiplier);
+        odds.put("LOSS", lossMultiplier);
+        odds.put("EXACT_SCORE", exactScoreMultiplier);
+        odds.put("TOTAL_OVER", totalOverMultiplier);
+        odds.put("TOTAL_UNDER", totalUnderMultiplier);
+        EventBus.getInstance().publishOdds(competitionId, odds);
         return true;
     }
 
+    @Override
+    public OddsSnapshot findOdds(int competitionId) {
+        Map<Integer, BigDecimal> multipliers = new HashMap<>();
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_ODDS)) {
+            statement.setInt(1, competitionId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    multipliers.put(resultSet.getInt("id"), resultSet.getBigDecimal("multiplier"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading odds for competition " + competitionId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+        return OddsSnapshot.of(competitionId, multipliers);
+    }
+
     private static void nameForMethod(int competitionId, BigDecimal winMultiplier, BigDecimal drawMultiplier, BigDecimal lossMultiplier,
                                      BigDecimal exactScoreMultiplier, BigDecimal totalOverMultiplier, BigDecimal totalUnderMultiplier,
                                      PreparedStatement statement) throws SQLException {
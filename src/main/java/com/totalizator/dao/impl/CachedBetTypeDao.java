@@ -0,0 +1,133 @@
+package com.totalizator.dao.impl;
+
+import com.totalizator.dao.Dao;
+import com.totalizator.dao.Page;
+import com.totalizator.model.BetType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+public class CachedBetTypeDao implements Dao<BetType, Integer> {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Dao<BetType, Integer> delegate;
+    private final long refreshIntervalNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public CachedBetTypeDao(Dao<BetType, Integer> delegate, long refreshIntervalMillis) {
+        this.delegate = delegate;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis);
+        this.snapshot = Snapshot.of(Collections.emptyList(), System.nanoTime());
+        refresh();
+    }
+
+    @Override
+    public Optional<BetType> findById(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<BetType> betType = currentSnapshot().byId.get(id);
+        return betType != null ? betType : Optional.empty();
+    }
+
+    public Optional<BetType> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Optional<BetType> betType = currentSnapshot().byName.get(name);
+        return betType != null ? betType : Optional.empty();
+    }
+
+    @Override
+    public List<BetType> findAll() {
+        return currentSnapshot().all;
+    }
+
+    @Override
+    public Page<BetType> findPage(String cursor, int limit) {
+        return delegate.findPage(cursor, limit);
+    }
+
+    @Override
+    public BetType save(BetType betType) {
+        BetType saved = delegate.save(betType);
+        refresh();
+        return saved;
+    }
+
+    @Override
+    public boolean update(BetType betType) {
+        boolean updated = delegate.update(betType);
+        refresh();
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(Integer id) {
+        boolean deleted = delegate.deleteById(id);
+        refresh();
+        return deleted;
+    }
+
+    public synchronized void refresh() {
+        List<BetType> betTypes = delegate.findAll();
+        if (betTypes.isEmpty() && !snapshot.all.isEmpty()) {
+            logger.warn("Bet types reload returned no rows, keeping {} cached entries", snapshot.all.size());
+            snapshot = Snapshot.of(snapshot.all, System.nanoTime());
+            return;
+        }
+        snapshot = Snapshot.of(betTypes, System.nanoTime());
+        logger.info("Bet type cache refreshed with {} entries", betTypes.size());
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        boolean stale = current.all.isEmpty() || System.nanoTime() - current.loadedAtNanos >= refreshIntervalNanos;
+        if (stale && refreshing.compareAndSet(false, true)) {
+            try {
+                refresh();
+                current = snapshot;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final List<BetType> all;
+        private final Map<Integer, Optional<BetType>> byId;
+        private final Map<String, Optional<BetType>> byName;
+        private final long loadedAtNanos;
+
+        private Snapshot(List<BetType> all, Map<Integer, Optional<BetType>> byId,
+                         Map<String, Optional<BetType>> byName, long loadedAtNanos) {
+            this.all = all;
+            this.byId = byId;
+            this.byName = byName;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        private static Snapshot of(List<BetType> betTypes, long loadedAtNanos) {
+            Map<Integer, Optional<BetType>> byId = new HashMap<>();
+            Map<String, Optional<BetType>> byName = new HashMap<>();
+            for (BetType betType : betTypes) {
+                Optional<BetType> entry = Optional.of(betType);
+                byId.put(betType.getId(), entry);
+                if (betType.getName() != null) {
+                    byName.put(betType.getName(), entry);
+                }
+            }
+            return new Snapshot(List.copyOf(betTypes), Map.copyOf(byId), Map.copyOf(byName), loadedAtNanos);
+        }
+    }
+}
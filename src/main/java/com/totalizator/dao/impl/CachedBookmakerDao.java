@@ -0,0 +1,66 @@
+package com.totalizator.dao.impl;
+
+import com.totalizator.dao.BookmakerDao;
+import com.totalizator.model.OddsSnapshot;
+import com.totalizator.util.TransactionManager;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class CachedBookmakerDao implements BookmakerDao {
+    private final BookmakerDao delegate;
+    private final LinkedHashMap<Integer, OddsSnapshot> snapshots;
+    private final AtomicLong version = new AtomicLong();
+
+    public CachedBookmakerDao(BookmakerDao delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, OddsSnapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public boolean updateOddsCompetition(int competitionId, BigDecimal winMultiplier, BigDecimal drawMultiplier,
+                                         BigDecimal lossMultiplier, BigDecimal exactScoreMultiplier,
+                                         BigDecimal totalOverMultiplier, BigDecimal totalUnderMultiplier) {
+        try {
+            return delegate.updateOddsCompetition(competitionId, winMultiplier, drawMultiplier, lossMultiplier,
+                    exactScoreMultiplier, totalOverMultiplier, totalUnderMultiplier);
+        } finally {
+            invalidate(competitionId);
+            TransactionManager.afterCommit(() -> invalidate(competitionId));
+        }
+    }
+
+    @Override
+    public OddsSnapshot findOdds(int competitionId) {
+        long loadVersion;
+        synchronized (this) {
+            OddsSnapshot snapshot = snapshots.get(competitionId);
+            if (snapshot != null) {
+                return snapshot;
+            }
+            loadVersion = version.get();
+        }
+        OddsSnapshot snapshot = delegate.findOdds(competitionId);
+        if (!TransactionManager.isActive()) {
+            synchronized (this) {
+                if (version.get() == loadVersion) {
+                    snapshots.put(competitionId, snapshot);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public synchronized void invalidate(int competitionId) {
+        version.incrementAndGet();
+        snapshots.remove(competitionId);
+    }
+}
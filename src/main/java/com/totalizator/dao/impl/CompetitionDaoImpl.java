@@ -1,6 +1,7 @@
 package com.totalizator.dao.impl;
 
 import com.totalizator.dao.CompetitionDao;
+import com.totalizator.dao.Page;
 import com.totalizator.model.Competition;
 import com.totalizator.util.ConnectionPool;
 import org.apache.logging.log4j.LogManager;
@@ -21,17 +22,32 @@ public class CompetitionDaoImpl implements CompetitionDao {
     private static final Logger logger = LogManager.getLogger();
     private final ConnectionPool connectionPool;
 
-    private static final String FIND_BY_ID = "SELECT id, title, description, sport_type, start_date, " +
+    private static final String SELECT_COMPETITIONS = "SELECT id, title, description, sport_type, start_date, " +
             "end_date, status, result, team1, team2, score1, score2, created_at, updated_at " +
-            "FROM competitions WHERE id = ?";
+            "FROM competitions ";
 
-    private static final String FIND_ALL = "SELECT id, title, description, sport_type, start_date, " +
-            "end_date, status, result, team1, team2, score1, score2, created_at, updated_at " +
-            "FROM competitions ORDER BY start_date DESC";
+    private static final String FIND_BY_ID = SELECT_COMPETITIONS + "WHERE id = ?";
 
-    private static final String FIND_BY_STATUS = "SELECT id, title, description, sport_type, start_date, " +
-            "end_date, status, result, team1, team2, score1, score2, created_at, updated_at " +
-            "FROM competitions WHERE status = ? ORDER BY start_date DESC";
+    private static final String FIND_ALL = SELECT_COMPETITIONS + "ORDER BY start_date DESC";
+
+    private static final String FIND_BY_STATUS = SELECT_COMPETITIONS + "WHERE status = ? ORDER BY start_date DESC";
+
+    private static final String PAGE_ORDER = "ORDER BY start_date DESC, id DESC LIMIT ?";
+    private static final String PAGE_ORDER_REVERSED = "ORDER BY start_date ASC, id ASC LIMIT ?";
+    private static final String PAGE_AFTER = "(start_date < ? OR (start_date = ? AND id < ?)) ";
+    private static final String PAGE_BEFORE = "(start_date > ? OR (start_date = ? AND id > ?)) ";
+
+    private static final KeysetPager<Competition> PAGER = new KeysetPager<>(
+            SELECT_COMPETITIONS + PAGE_ORDER,
+            SELECT_COMPETITIONS + "WHERE " + PAGE_AFTER + PAGE_ORDER,
+            SELECT_COMPETITIONS + "WHERE " + PAGE_BEFORE + PAGE_ORDER_REVERSED,
+            Competition::getStartDate, Competition::getId);
+
+    private static final KeysetPager<Competition> STATUS_PAGER = new KeysetPager<>(
+            SELECT_COMPETITIONS + "WHERE status = ? " + PAGE_ORDER,
+            SELECT_COMPETITIONS + "WHERE status = ? AND " + PAGE_AFTER + PAGE_ORDER,
+            SELECT_COMPETITIONS + "WHERE status = ? AND " + PAGE_BEFORE + PAGE_ORDER_REVERSED,
+            Competition::getStartDate, Competition::getId);
 
     private static final String INSERT = "INSERT INTO competitions (title, description, sport_type, " +
             "start_date, end_date, status, result, team1, team2, score1, score2) " +
@@ -117,6 +133,29 @@ public class CompetitionDaoImpl implements CompetitionDao {
         return competitions;
     }
 
+    @Override
+    public Page<Competition> findPage(String cursor, int limit) {
+        try {
+            return PAGER.findPage(connectionPool, null, cursor, limit, this::mapResultSetToCompetition);
+        } catch (SQLException e) {
+            logger.error("Error finding competitions page", e);
+            return Page.empty();
+        }
+    }
+
+    @Override
+    public Page<Competition> findPageByStatus(String status, String cursor, int limit) {
+        try {
+            return STATUS_PAGER.findPage(connectionPool, (statement, index) -> {
+                statement.setString(index, status);
+                return index + 1;
+            }, cursor, limit, this::mapResultSetToCompetition);
+        } catch (SQLException e) {
+            logger.error("Error finding competitions page by status: {}", status, e);
+            return Page.empty();
+        }
+    }
+
     @Override
     public Competition save(Competition competition) {
         Connection connection = connectionPool.getConnection();
@@ -221,33 +260,37 @@ public class CompetitionDaoImpl implements CompetitionDao {
 
 
     private Competition mapResultSetToCompetition(ResultSet resultSet) throws SQLException {
+        return mapCompetition(resultSet, "");
+    }
+
+    static Competition mapCompetition(ResultSet resultSet, String prefix) throws SQLException {
         try {
             Competition competition = new Competition();
-            competition.setId(resultSet.getInt("id"));
+            competition.setId(resultSet.getInt(prefix + "id"));
 
-            String title = resultSet.getString("title");
+            String title = resultSet.getString(prefix + "title");
             if (title == null) {
                 logger.warn("Competition with id {} has null title", competition.getId());
                 title = "Untitled Competition";
             }
             competition.setTitle(title);
 
-            competition.setDescription(resultSet.getString("description"));
-            competition.setSportType(resultSet.getString("sport_type"));
+            competition.setDescription(resultSet.getString(prefix + "description"));
+            competition.setSportType(resultSet.getString(prefix + "sport_type"));
 
-            Timestamp startDate = resultSet.getTimestamp("start_date");
+            Timestamp startDate = resultSet.getTimestamp(prefix + "start_date");
             if (startDate == null) {
                 logger.error("Competition with id {} has null start_date, which is required", competition.getId());
                 throw new SQLException("start_date cannot be null for competition id: " + competition.getId());
             }
             competition.setStartDate(startDate.toLocalDateTime());
 
-            Timestamp endDate = resultSet.getTimestamp("end_date");
+            Timestamp endDate = resultSet.getTimestamp(prefix + "end_date");
             if (endDate != null) {
                 competition.setEndDate(endDate.toLocalDateTime());
             }
 
-            String statusStr = resultSet.getString("status");
+            String statusStr = resultSet.getString(prefix + "status");
             if (statusStr != null && !statusStr.isEmpty()) {
                 try {
                     competition.setStatus(Competition.CompetitionStatus.valueOf(statusStr));
@@ -259,38 +302,38 @@ public class CompetitionDaoImpl implements CompetitionDao {
                 competition.setStatus(Competition.CompetitionStatus.SCHEDULED);
             }
 
-            competition.setResult(resultSet.getString("result"));
+            competition.setResult(resultSet.getString(prefix + "result"));
 
-            String team1 = resultSet.getString("team1");
+            String team1 = resultSet.getString(prefix + "team1");
             if (team1 == null) {
                 logger.warn("Competition with id {} has null team1", competition.getId());
                 team1 = "Team 1";
             }
             competition.setTeam1(team1);
 
-            String team2 = resultSet.getString("team2");
+            String team2 = resultSet.getString(prefix + "team2");
             if (team2 == null) {
                 logger.warn("Competition with id {} has null team2", competition.getId());
                 team2 = "Team 2";
             }
             competition.setTeam2(team2);
 
-            int score1 = resultSet.getInt("score1");
+            int score1 = resultSet.getInt(prefix + "score1");
             if (!resultSet.wasNull()) {
                 competition.setScore1(score1);
             }
 
-            int score2 = resultSet.getInt("score2");
+            int score2 = resultSet.getInt(prefix + "score2");
             if (!resultSet.wasNull()) {
                 competition.setScore2(score2);
             }
 
-            Timestamp createdAt = resultSet.getTimestamp("created_at");
+            Timestamp createdAt = resultSet.getTimestamp(prefix + "created_at");
             if (createdAt != null) {
                 competition.setCreatedAt(createdAt.toLocalDateTime());
             }
 
-            Timestamp updatedAt = resultSet.getTimestamp("updated_at");
+            Timestamp updatedAt = resultSet.getTimestamp(prefix + "updated_at");
             if (updatedAt != null) {
                 competition.setUpdatedAt(updatedAt.toLocalDateTime());
             }
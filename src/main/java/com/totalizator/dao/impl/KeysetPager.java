@@ -0,0 +1,70 @@
+package com.totalizator.dao.impl;
+
+import com.totalizator.dao.Page;
+import com.totalizator.dao.PageCursor;
+import com.totalizator.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+
+final class KeysetPager<T> {
+    static final int MAX_LIMIT = 100;
+
+    private final String firstPageSql;
+    private final String afterSql;
+    private final String beforeSql;
+    private final Function<T, LocalDateTime> sortKey;
+    private final ToIntFunction<T> idKey;
+
+
+    KeysetPager(String firstPageSql, String afterSql, String beforeSql,
+                Function<T, LocalDateTime> sortKey, ToIntFunction<T> idKey) {
+        this.firstPageSql = firstPageSql;
+        this.afterSql = afterSql;
+        this.beforeSql = beforeSql;
+        this.sortKey = sortKey;
+        this.idKey = idKey;
+    }
+
+    Page<T> findPage(ConnectionPool connectionPool, ParameterBinder filter, String cursorToken, int limit,
+                     RowMapper<T> mapper) throws SQLException {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        PageCursor cursor = PageCursor.decode(cursorToken);
+        if (cursor != null && (sortKey != null) != (cursor.getSortValue() != null)) {
+            cursor = null;
+        }
+        String sql = cursor == null ? firstPageSql : cursor.isBackward() ? beforeSql : afterSql;
+
+        List<T> rows = new ArrayList<>(pageSize + 1);
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = filter != null ? filter.bind(statement, 1) : 1;
+            if (cursor != null) {
+                if (cursor.getSortValue() != null) {
+                    Timestamp sortValue = Timestamp.valueOf(cursor.getSortValue());
+                    statement.setTimestamp(index++, sortValue);
+                    statement.setTimestamp(index++, sortValue);
+                }
+                statement.setInt(index++, cursor.getId());
+            }
+            statement.setInt(index, pageSize + 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(mapper.map(resultSet));
+                }
+            }
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+        return Page.fromRows(rows, pageSize, cursor, sortKey != null ? sortKey : item -> null, idKey);
+    }
+}
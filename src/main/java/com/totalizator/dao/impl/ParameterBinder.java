@@ -0,0 +1,9 @@
+package com.totalizator.dao.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+
+interface ParameterBinder {
+    int bind(PreparedStatement statement, int index) throws SQLException;
+}
@@ -0,0 +1,96 @@
+package com.totalizator.dao.impl;
+
+import com.totalizator.util.ConnectionPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+final class ResultSetStream<T> extends Spliterators.AbstractSpliterator<T> {
+    private static final Logger logger = LogManager.getLogger(ResultSetStream.class);
+
+    private final ConnectionPool connectionPool;
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+    private boolean closed;
+
+    private ResultSetStream(ConnectionPool connectionPool, Connection connection, PreparedStatement statement,
+                            ResultSet resultSet, RowMapper<T> mapper) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.connectionPool = connectionPool;
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+    }
+
+    static <T> Stream<T> open(ConnectionPool connectionPool, String sql, ParameterBinder binder, int fetchSize,
+                              RowMapper<T> mapper) throws SQLException {
+        Connection connection = connectionPool.getConnection();
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            if (binder != null) {
+                binder.bind(statement, 1);
+            }
+            ResultSet resultSet = statement.executeQuery();
+            ResultSetStream<T> spliterator =
+                    new ResultSetStream<>(connectionPool, connection, statement, resultSet, mapper);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (SQLException | RuntimeException e) {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            connectionPool.releaseConnection(connection);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!resultSet.next()) {
+                close();
+                return false;
+            }
+            action.accept(mapper.map(resultSet));
+            return true;
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeException("Error reading result set", e);
+        }
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing streamed result set", e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.totalizator.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+
+interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,209 @@
+package com.totalizator.dao.impl;
+
+import com.totalizator.dao.SettlementJobDao;
+import com.totalizator.model.SettlementJob;
+import com.totalizator.util.ConnectionPool;
+import com.totalizator.util.TransactionManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+
+public class SettlementJobDaoImpl implements SettlementJobDao {
+    private static final Logger logger = LogManager.getLogger();
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String SELECT_JOBS = "SELECT sj.id, sj.competition_id, c.title, sj.status, sj.total_bets, " +
+            "sj.processed_bets, sj.last_bet_id, sj.attempts, sj.error, sj.created_at, sj.started_at, " +
+            "sj.finished_at, sj.updated_at, sj.next_attempt_at FROM settlement_jobs sj JOIN competitions c ON sj.competition_id = c.id ";
+
+    private static final String FIND_BY_ID = SELECT_JOBS + "WHERE sj.id = ?";
+
+    private static final String FIND_RECENT = SELECT_JOBS + "ORDER BY sj.id DESC LIMIT ?";
+
+    private static final String KEEP_IF_RUNNING = "IF(status = 'RUNNING', ";
+
+    private static final String ENQUEUE = "INSERT INTO settlement_jobs (competition_id) VALUES (?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_bets = " + KEEP_IF_RUNNING + "total_bets, 0), " +
+            "processed_bets = " + KEEP_IF_RUNNING + "processed_bets, 0), " +
+            "last_bet_id = " + KEEP_IF_RUNNING + "last_bet_id, 0), " +
+            "attempts = " + KEEP_IF_RUNNING + "attempts, 0), " +
+            "error = " + KEEP_IF_RUNNING + "error, NULL), " +
+            "started_at = " + KEEP_IF_RUNNING + "started_at, NULL), " +
+            "finished_at = " + KEEP_IF_RUNNING + "finished_at, NULL), " +
+            "next_attempt_at = " + KEEP_IF_RUNNING + "next_attempt_at, NOW()), " +
+            "status = " + KEEP_IF_RUNNING + "status, 'QUEUED')";
+
+    private static final String LOCK_NEXT = "SELECT id FROM settlement_jobs " +
+            "WHERE id > ? AND ((status = 'QUEUED' AND next_attempt_at <= NOW()) " +
+            "OR (status = 'RUNNING' AND updated_at < NOW() - INTERVAL ? SECOND)) " +
+            "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM = "UPDATE settlement_jobs SET status = 'RUNNING', attempts = attempts + 1, " +
+            "started_at = COALESCE(started_at, NOW()), updated_at = NOW(), " +
+            "total_bets = IF(processed_bets = 0 AND last_bet_id = 0, (SELECT COUNT(*) FROM bets b " +
+            "WHERE b.competition_id = settlement_jobs.competition_id AND b.status = 'PENDING'), total_bets) " +
+            "WHERE id = ?";
+
+    private static final String CHECKPOINT = "UPDATE settlement_jobs SET last_bet_id = ?, " +
+            "processed_bets = processed_bets + ?, updated_at = NOW() " +
+            "WHERE id = ? AND status = 'RUNNING' AND last_bet_id = ?";
+
+    private static final String COMPLETE = "UPDATE settlement_jobs SET status = 'DONE', error = NULL, " +
+            "finished_at = NOW(), total_bets = GREATEST(total_bets, processed_bets) " +
+            "WHERE id = ? AND status = 'RUNNING'";
+
+    private static final String FAIL = "UPDATE settlement_jobs SET status = IF(attempts >= ?, 'FAILED', 'QUEUED'), " +
+            "error = ?, next_attempt_at = NOW() + INTERVAL ? SECOND WHERE id = ? AND status = 'RUNNING'";
+
+    private final ConnectionPool connectionPool;
+
+
+    public SettlementJobDaoImpl(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public void enqueue(int competitionId) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(ENQUEUE)) {
+            statement.setInt(1, competitionId);
+            statement.executeUpdate();
+            logger.info("Settlement job queued for competition {}", competitionId);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error queueing settlement of competition " + competitionId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public Optional<SettlementJob> claimNext(int afterJobId, int leaseSeconds) {
+        return TransactionManager.inTransaction(() -> {
+            Connection connection = connectionPool.getConnection();
+            try {
+                int jobId;
+                try (PreparedStatement statement = connection.prepareStatement(LOCK_NEXT)) {
+                    statement.setInt(1, afterJobId);
+                    statement.setInt(2, leaseSeconds);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return Optional.empty();
+                        }
+                        jobId = resultSet.getInt("id");
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(CLAIM)) {
+                    statement.setInt(1, jobId);
+                    statement.executeUpdate();
+                }
+                try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+                    statement.setInt(1, jobId);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next() ? Optional.of(mapResultSetToJob(resultSet)) : Optional.empty();
+                    }
+                }
+            } finally {
+                connectionPool.releaseConnection(connection);
+            }
+        });
+    }
+
+    @Override
+    public boolean checkpoint(int jobId, int previousLastBetId, int lastBetId, int settledBets) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(CHECKPOINT)) {
+            statement.setInt(1, lastBetId);
+            statement.setInt(2, settledBets);
+            statement.setInt(3, jobId);
+            statement.setInt(4, previousLastBetId);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving checkpoint of settlement job " + jobId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public void complete(int jobId) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(COMPLETE)) {
+            statement.setInt(1, jobId);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error completing settlement job " + jobId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public void fail(int jobId, String error, int maxAttempts, long retryDelaySeconds) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(FAIL)) {
+            statement.setInt(1, maxAttempts);
+            statement.setString(2, error != null && error.length() > MAX_ERROR_LENGTH
+                    ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            statement.setLong(3, retryDelaySeconds);
+            statement.setInt(4, jobId);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Error marking settlement job {} as failed", jobId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public List<SettlementJob> findRecent(int limit) {
+        List<SettlementJob> jobs = new ArrayList<>();
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_RECENT)) {
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    jobs.add(mapResultSetToJob(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding settlement jobs", e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+        return jobs;
+    }
+
+    private SettlementJob mapResultSetToJob(ResultSet resultSet) throws SQLException {
+        SettlementJob job = new SettlementJob();
+        job.setId(resultSet.getInt("id"));
+        job.setCompetitionId(resultSet.getInt("competition_id"));
+        job.setCompetitionTitle(resultSet.getString("title"));
+        job.setStatus(SettlementJob.JobStatus.valueOf(resultSet.getString("status")));
+        job.setTotalBets(resultSet.getInt("total_bets"));
+        job.setProcessedBets(resultSet.getInt("processed_bets"));
+        job.setLastBetId(resultSet.getInt("last_bet_id"));
+        job.setAttempts(resultSet.getInt("attempts"));
+        job.setError(resultSet.getString("error"));
+        job.setCreatedAt(toLocalDateTime(resultSet.getTimestamp("created_at")));
+        job.setStartedAt(toLocalDateTime(resultSet.getTimestamp("started_at")));
+        job.setFinishedAt(toLocalDateTime(resultSet.getTimestamp("finished_at")));
+        job.setUpdatedAt(toLocalDateTime(resultSet.getTimestamp("updated_at")));
+        job.setNextAttemptAt(toLocalDateTime(resultSet.getTimestamp("next_attempt_at")));
+        return job;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.totalizator.dao.impl;
 
+import com.totalizator.dao.Page;
 import com.totalizator.dao.UserDao;
 import com.totalizator.model.Role;
 import com.totalizator.model.User;
@@ -7,6 +8,7 @@ import com.totalizator.util.ConnectionPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -22,25 +24,24 @@ public class UserDaoImpl implements UserDao {
     private static final Logger logger = LogManager.getLogger();
     private final ConnectionPool connectionPool;
 
-    private static final String FIND_BY_ID = "SELECT u.id, u.username, u.email, u.password, " +
+    private static final String SELECT_USERS = "SELECT u.id, u.username, u.email, u.password, " +
             "u.first_name, u.last_name, u.role_id, u.balance, u.is_active, u.created_at, u.updated_at, " +
             "r.name as role_name, r.description as role_description " +
-            "FROM users u JOIN roles r ON u.role_id = r.id WHERE u.id = ?";
+            "FROM users u JOIN roles r ON u.role_id = r.id ";
+
+    private static final String FIND_BY_ID = SELECT_USERS + "WHERE u.id = ?";
     
-    private static final String FIND_ALL = "SELECT u.id, u.username, u.email, u.password, " +
-            "u.first_name, u.last_name, u.role_id, u.balance, u.is_active, u.created_at, u.updated_at, " +
-            "r.name as role_name, r.description as role_description " +
-            "FROM users u JOIN roles r ON u.role_id = r.id ORDER BY u.id";
+    private static final String FIND_ALL = SELECT_USERS + "ORDER BY u.id";
     
-    private static final String FIND_BY_USERNAME = "SELECT u.id, u.username, u.email, u.password, " +
-            "u.first_name, u.last_name, u.role_id, u.balance, u.is_active, u.created_at, u.updated_at, " +
-            "r.name as role_name, r.description as role_description " +
-            "FROM users u JOIN roles r ON u.role_id = r.id WHERE u.username = ?";
+    private static final String FIND_BY_USERNAME = SELECT_USERS + "WHERE u.username = ?";
     
-    private static final String FIND_BY_EMAIL = "SELECT u.id, u.username, u.email, u.password, " +
-            "u.first_name, u.last_name, u.role_id, u.balance, u.is_active, u.created_at, u.updated_at, " +
-            "r.name as role_name, r.description as role_description " +
-            "FROM users u JOIN roles r ON u.role_id = r.id WHERE u.email = ?";
+    private static final String FIND_BY_EMAIL = SELECT_USERS + "WHERE u.email = ?";
+
+    private static final KeysetPager<User> PAGER = new KeysetPager<>(
+            SELECT_USERS + "ORDER BY u.id LIMIT ?",
+            SELECT_USERS + "WHERE u.id > ? ORDER BY u.id LIMIT ?",
+            SELECT_USERS + "WHERE u.id < ? ORDER BY u.id DESC LIMIT ?",
+            null, User::getId);
     
     private static final String INSERT = "INSERT INTO users (username, email, password, first_name, " +
             "last_name, role_id, balance, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
@@ -50,6 +51,11 @@ public class UserDaoImpl implements UserDao {
     
     private static final String DELETE = "DELETE FROM users WHERE id = ?";
 
+    static final String DEBIT_BALANCE = "UPDATE users SET balance = balance - ? " +
+            "WHERE id = ? AND balance >= ?";
+
+    private static final String CREDIT_BALANCE = "UPDATE users SET balance = balance + ? WHERE id = ?";
+
     
     public UserDaoImpl(ConnectionPool connectionPool) {
         this.connectionPool = connectionPool;
@@ -90,6 +96,16 @@ public class UserDaoImpl implements UserDao {
         return users;
     }
 
+    @Override
+    public Page<User> findPage(String cursor, int limit) {
+        try {
+            return PAGER.findPage(connectionPool, null, cursor, limit, this::mapResultSetToUser);
+        } catch (SQLException e) {
+            logger.error("Error finding users page", e);
+            return Page.empty();
+        }
+    }
+
     @Override
     public Optional<User> findByUsername(String username) {
         Connection connection = connectionPool.getConnection();
@@ -184,6 +200,34 @@ public class UserDaoImpl implements UserDao {
         }
     }
 
+    @Override
+    public boolean debitBalance(Integer userId, BigDecimal amount) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(DEBIT_BALANCE)) {
+            bindDebit(statement, userId, amount);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error debiting balance of user " + userId, e);
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public boolean creditBalance(Integer userId, BigDecimal amount) {
+        Connection connection = connectionPool.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(CREDIT_BALANCE)) {
+            statement.setBigDecimal(1, amount);
+            statement.setInt(2, userId);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Error crediting balance of user: {}", userId, e);
+            return false;
+        } finally {
+            connectionPool.releaseConnection(connection);
+        }
+    }
+
     @Override
     public boolean deleteById(Integer id) {
         Connection connection = connectionPool.getConnection();
@@ -202,30 +246,40 @@ public class UserDaoImpl implements UserDao {
 
     
     private User mapResultSetToUser(ResultSet resultSet) throws SQLException {
+        return mapUser(resultSet, "");
+    }
+
+    static void bindDebit(PreparedStatement statement, int userId, BigDecimal amount) throws SQLException {
+        statement.setBigDecimal(1, amount);
+        statement.setInt(2, userId);
+        statement.setBigDecimal(3, amount);
+    }
+
+    static User mapUser(ResultSet resultSet, String prefix) throws SQLException {
         User user = new User();
-        user.setId(resultSet.getInt("id"));
-        user.setUsername(resultSet.getString("username"));
-        user.setEmail(resultSet.getString("email"));
-        user.setPassword(resultSet.getString("password"));
-        user.setFirstName(resultSet.getString("first_name"));
-        user.setLastName(resultSet.getString("last_name"));
-        user.setBalance(resultSet.getBigDecimal("balance"));
-        user.setActive(resultSet.getBoolean("is_active"));
+        user.setId(resultSet.getInt(prefix + "id"));
+        user.setUsername(resultSet.getString(prefix + "username"));
+        user.setEmail(resultSet.getString(prefix + "email"));
+        user.setPassword(resultSet.getString(prefix + "password"));
+        user.setFirstName(resultSet.getString(prefix + "first_name"));
+        user.setLastName(resultSet.getString(prefix + "last_name"));
+        user.setBalance(resultSet.getBigDecimal(prefix + "balance"));
+        user.setActive(resultSet.getBoolean(prefix + "is_active"));
         
-        Timestamp createdAt = resultSet.getTimestamp("created_at");
+        Timestamp createdAt = resultSet.getTimestamp(prefix + "created_at");
         if (createdAt != null) {
             user.setCreatedAt(createdAt.toLocalDateTime());
         }
         
-        Timestamp updatedAt = resultSet.getTimestamp("updated_at");
+        Timestamp updatedAt = resultSet.getTimestamp(prefix + "updated_at");
         if (updatedAt != null) {
             user.setUpdatedAt(updatedAt.toLocalDateTime());
         }
         
         Role role = new Role();
-        role.setId(resultSet.getInt("role_id"));
-        role.setName(resultSet.getString("role_name"));
-        role.setDescription(resultSet.getString("role_description"));
+        role.setId(resultSet.getInt(prefix + "role_id"));
+        role.setName(resultSet.getString(prefix + "role_name"));
+        role.setDescription(resultSet.getString(prefix + "role_description"));
         user.setRole(role);
         
         return user;
@@ -0,0 +1,70 @@
+package com.totalizator.event;
+
+import java.nio.charset.StandardCharsets;
+
+
+public final class CompetitionEvent {
+
+    public enum Type {
+        COMPETITION("competition"),
+        ODDS("odds");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final int competitionId;
+    private final String data;
+    private final byte[] frame;
+
+    CompetitionEvent(long sequence, Type type, int competitionId, String data) {
+        this.sequence = sequence;
+        this.type = type;
+        this.competitionId = competitionId;
+        this.data = data;
+        this.frame = ("id: " + sequence + "\nevent: " + type.getEventName() + "\ndata: " + data + "\n\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getCompetitionId() {
+        return competitionId;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public String getCoalescingKey() {
+        return type.getEventName() + ":" + competitionId;
+    }
+
+    public byte[] getFrame() {
+        return frame;
+    }
+
+    @Override
+    public String toString() {
+        return "CompetitionEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", competitionId=" + competitionId +
+                '}';
+    }
+}
@@ -0,0 +1,119 @@
+package com.totalizator.event;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.totalizator.model.Competition;
+import com.totalizator.util.TransactionManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class EventBus {
+    private static final Logger logger = LogManager.getLogger();
+    private static final EventBus instance = new EventBus();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+
+    private EventBus() {
+    }
+
+    public static EventBus getInstance() {
+        return instance;
+    }
+
+    public void subscribe(EventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(EventListener listener) {
+        listeners.remove(listener);
+    }
+
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    public void publishCompetition(Competition competition) {
+        String data = toJson(json -> {
+            json.writeNumberField("competitionId", competition.getId());
+            json.writeStringField("title", competition.getTitle());
+            json.writeStringField("status", competition.getStatus() != null ? competition.getStatus().name() : null);
+            json.writeStringField("result", competition.getResult());
+            writeInteger(json, "score1", competition.getScore1());
+            writeInteger(json, "score2", competition.getScore2());
+            writeDate(json, "startDate", competition.getStartDate());
+            writeDate(json, "endDate", competition.getEndDate());
+        });
+        publish(CompetitionEvent.Type.COMPETITION, competition.getId(), data);
+    }
+
+    public void publishOdds(int competitionId, Map<String, BigDecimal> multipliers) {
+        String data = toJson(json -> {
+            json.writeNumberField("competitionId", competitionId);
+            json.writeObjectFieldStart("odds");
+            for (Map.Entry<String, BigDecimal> entry : multipliers.entrySet()) {
+                json.writeNumberField(entry.getKey(), entry.getValue());
+            }
+            json.writeEndObject();
+        });
+        publish(CompetitionEvent.Type.ODDS, competitionId, data);
+    }
+
+    private void publish(CompetitionEvent.Type type, int competitionId, String data) {
+        TransactionManager.afterCommit(() -> {
+            CompetitionEvent event = new CompetitionEvent(sequence.incrementAndGet(), type, competitionId, data);
+            for (EventListener listener : listeners) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    logger.warn("Event listener failed for {}", event, e);
+                }
+            }
+        });
+    }
+
+    private static String toJson(JsonBody body) {
+        StringWriter writer = new StringWriter(128);
+        try (JsonGenerator json = JSON.createGenerator(writer)) {
+            json.writeStartObject();
+            body.write(json);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Error serializing event", e);
+        }
+        return writer.toString();
+    }
+
+    private static void writeInteger(JsonGenerator json, String name, Integer value) throws IOException {
+        if (value != null) {
+            json.writeNumberField(name, value);
+        } else {
+            json.writeNullField(name);
+        }
+    }
+
+    private static void writeDate(JsonGenerator json, String name, LocalDateTime value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value.toString());
+        } else {
+            json.writeNullField(name);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator json) throws IOException;
+    }
+}
@@ -0,0 +1,8 @@
+package com.totalizator.event;
+
+
+@FunctionalInterface
+public interface EventListener {
+
+    void onEvent(CompetitionEvent event);
+}
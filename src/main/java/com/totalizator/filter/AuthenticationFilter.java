@@ -1,6 +1,10 @@
 package com.totalizator.filter;
 
-import com.totalizator.model.User;
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.routing.RouteAccess;
+import com.totalizator.routing.RouteMatch;
+import com.totalizator.routing.RouteTable;
+import com.totalizator.util.AuthStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -12,22 +16,27 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
+import java.util.Set;
 
 
 public class AuthenticationFilter implements Filter {
     private static final Logger logger = LogManager.getLogger();
 
     private static final String LOGIN_ACTION = "/login";
-    private static final String REGISTER_ACTION = "/register";
+    private static final String API_PREFIX = "/api/";
     private static final String STATIC_RESOURCES = "/css/";
-    private static final String USER_ATTRIBUTE = "user";
+    private static final Set<String> STATIC_EXTENSIONS = Set.of("css", "js", "png", "jpg", "gif", "ico");
+
+    private AuthStore authStore;
+    private RouteTable routeTable;
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         try {
             logger.info("AuthenticationFilter initializing...");
+            authStore = AuthStore.getInstance();
+            routeTable = RouteTable.getInstance();
 
             logger.info("AuthenticationFilter initialized successfully");
         } catch (Exception e) {
@@ -41,41 +50,48 @@ public class AuthenticationFilter implements Filter {
             throws IOException, ServletException {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
-        HttpSession session = httpRequest.getSession(true);
 
-        if (session.getAttribute("locale") == null) {
-            session.setAttribute("locale", java.util.Locale.ENGLISH);
-        }
-        
         String requestURI = httpRequest.getRequestURI();
         String contextPath = httpRequest.getContextPath();
-        String path = requestURI.substring(contextPath.length());
+        String path = RouteTable.normalize(requestURI.substring(contextPath.length()));
+        if (path == null) {
+            logger.warn("Rejected non-canonical request path: {}", requestURI);
+            httpResponse.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
 
-        if (path.equals(LOGIN_ACTION) || path.equals(REGISTER_ACTION)
-                || path.equals("/") || path.equals("/index.jsp") || path.startsWith(STATIC_RESOURCES)
-                || path.startsWith("/api/") || path.startsWith("/locale") || path.startsWith("/pages/")
-                || path.endsWith(".css") || path.endsWith(".js") || path.endsWith(".png")
-                || path.endsWith(".jpg") || path.endsWith(".gif") || path.endsWith(".ico")) {
+        RouteMatch match = routeTable.match(httpRequest.getMethod(), path);
+        if (match == null && isStaticResource(path)) {
             chain.doFilter(request, response);
             return;
         }
 
-        if (session.getAttribute(USER_ATTRIBUTE) == null) {
-            logger.debug("Unauthenticated access attempt to: {}", path);
-            httpResponse.sendRedirect(contextPath + LOGIN_ACTION);
+        authStore.load(httpRequest, httpResponse);
+
+        RouteAccess access = RouteAccess.AUTHENTICATED;
+        if (match != null) {
+            request.setAttribute(RouteMatch.ATTRIBUTE, match);
+            access = match.getRoute().getAccess();
+        }
+
+        if (access == RouteAccess.PUBLIC) {
+            chain.doFilter(request, response);
             return;
         }
-        
-        User user = (User) session.getAttribute(USER_ATTRIBUTE);
 
-        if (path.startsWith("/admin") && !user.getRole().getName().equals("ADMIN")) {
-            logger.warn("Unauthorized access attempt to admin area by user: {}", user.getUsername());
-            httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN);
+        UserPrincipal principal = AuthStore.getPrincipal(httpRequest);
+        if (principal == null) {
+            logger.debug("Unauthenticated access attempt to: {}", path);
+            if (path.startsWith(API_PREFIX)) {
+                httpResponse.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            } else {
+                httpResponse.sendRedirect(contextPath + LOGIN_ACTION);
+            }
             return;
         }
-        
-        if (path.startsWith("/bookmaker") && !user.getRole().getName().equals("BOOKMAKER")) {
-            logger.warn("Unauthorized access attempt to bookmaker area by user: {}", user.getUsername());
+
+        if (!access.permits(principal)) {
+            logger.warn("Unauthorized access attempt to {} area by user: {}", access, principal.getUsername());
             httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN);
             return;
         }
@@ -83,6 +99,15 @@ public class AuthenticationFilter implements Filter {
         chain.doFilter(request, response);
     }
 
+    private static boolean isStaticResource(String path) {
+        if (path.startsWith(STATIC_RESOURCES)) {
+            return true;
+        }
+        int extensionStart = path.lastIndexOf('.');
+        return extensionStart > path.lastIndexOf('/')
+                && STATIC_EXTENSIONS.contains(path.substring(extensionStart + 1));
+    }
+
     @Override
     public void destroy() {
         logger.info("AuthenticationFilter destroyed");
@@ -1,5 +1,6 @@
 package com.totalizator.filter;
 
+import com.totalizator.util.AppConfig;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,30 +14,51 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import java.io.IOException;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 
 public class XSSFilter implements Filter {
     private static final Logger logger = LogManager.getLogger();
+    private static final String DEFAULT_SANITIZED_HEADERS = "Referer";
 
-    private static final Pattern[] XSS_PATTERNS = {
-        Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("src[\r\n]*=[\r\n]*['\"]?(.*?)['\"]", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("</script>", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
-        Pattern.compile("onerror(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)
+    private static final char NO_TERMINATOR = 0;
+    private static final String SCRIPT_OPEN = "<script>";
+    private static final String SCRIPT_CLOSE = "</script>";
+    private static final String SOURCE = "src";
+
+    // Removal stages in the order the original regex chain applied them:
+    // <script>...</script>, src=...quote, </script>, <script...>, eval(...), expression(...),
+    // javascript:, vbscript:, onload...=, onerror...=
+    private static final String[] KEYWORDS = {
+        SCRIPT_OPEN, SOURCE, SCRIPT_CLOSE, "<script", "eval(", "expression(",
+        "javascript:", "vbscript:", "onload", "onerror"
+    };
+    private static final char[] TERMINATORS = {
+        NO_TERMINATOR, NO_TERMINATOR, NO_TERMINATOR, '>', ')', ')',
+        NO_TERMINATOR, NO_TERMINATOR, '=', '='
     };
+    private static final int SCRIPT_BLOCK_STAGE = 0;
+    private static final int SOURCE_STAGE = 1;
+
+    private Set<String> sanitizedHeaders;
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         try {
             logger.info("XSSFilter initializing...");
-            logger.info("XSSFilter initialized successfully");
+            Set<String> headers = new HashSet<>();
+            for (String header : AppConfig.getInstance().getString("xss.sanitizedHeaders", DEFAULT_SANITIZED_HEADERS)
+                    .split(",")) {
+                if (!header.isBlank()) {
+                    headers.add(header.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+            sanitizedHeaders = Set.copyOf(headers);
+            logger.info("XSSFilter initialized successfully, sanitized headers: {}", sanitizedHeaders);
         } catch (Exception e) {
             logger.error("Failed to initialize XSSFilter", e);
             throw new ServletException("Failed to initialize XSSFilter", e);
@@ -46,7 +68,7 @@ public class XSSFilter implements Filter {
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        chain.doFilter(new XSSRequestWrapper((HttpServletRequest) request), response);
+        chain.doFilter(new XSSRequestWrapper((HttpServletRequest) request, sanitizedHeaders), response);
     }
 
     @Override
@@ -55,56 +77,296 @@ public class XSSFilter implements Filter {
     }
 
     
+    static String stripXSS(String value) {
+        if (StringUtils.isBlank(value)) {
+            return value;
+        }
+
+        int present = findKeywords(value);
+        String sanitized = value;
+        for (int stage = 0; stage < KEYWORDS.length; stage++) {
+            // A removal can join text into a keyword for a later stage, so once the value
+            // has changed every later stage has to look for itself.
+            if (sanitized != value || (present & (1 << stage)) != 0) {
+                sanitized = removeStage(sanitized, stage);
+            }
+        }
+        return encode(sanitized);
+    }
+
+    private static String removeStage(String value, int stage) {
+        switch (stage) {
+            case SCRIPT_BLOCK_STAGE:
+                return removeScriptBlocks(value);
+            case SOURCE_STAGE:
+                return removeSourceAttributes(value);
+            default:
+                return remove(value, KEYWORDS[stage], TERMINATORS[stage]);
+        }
+    }
+
+    private static String removeScriptBlocks(String value) {
+        StringBuilder result = null;
+        int copied = 0;
+        int start = indexOfIgnoreCase(value, SCRIPT_OPEN, 0);
+        while (start >= 0) {
+            int contentStart = start + SCRIPT_OPEN.length();
+            int end = indexOfIgnoreCase(value, SCRIPT_CLOSE, contentStart);
+            if (end < 0) {
+                break;
+            }
+            int lineTerminator = indexOfLineTerminator(value, contentStart, end);
+            if (lineTerminator >= 0) {
+                start = indexOfIgnoreCase(value, SCRIPT_OPEN, lineTerminator + 1);
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(value.length());
+            }
+            result.append(value, copied, start);
+            copied = end + SCRIPT_CLOSE.length();
+            start = indexOfIgnoreCase(value, SCRIPT_OPEN, copied);
+        }
+        return result != null ? result.append(value, copied, value.length()).toString() : value;
+    }
+
+    private static String removeSourceAttributes(String value) {
+        StringBuilder result = null;
+        int copied = 0;
+        int start = indexOfIgnoreCase(value, SOURCE, 0);
+        while (start >= 0) {
+            int end = sourceAttributeEnd(value, start + SOURCE.length());
+            if (end < 0) {
+                start = indexOfIgnoreCase(value, SOURCE, start + 1);
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(value.length());
+            }
+            result.append(value, copied, start);
+            copied = end;
+            start = indexOfIgnoreCase(value, SOURCE, copied);
+        }
+        return result != null ? result.append(value, copied, value.length()).toString() : value;
+    }
+
+    private static int sourceAttributeEnd(String value, int offset) {
+        int length = value.length();
+        int i = skipLineBreaks(value, offset);
+        if (i == length || value.charAt(i) != '=') {
+            return -1;
+        }
+        i = skipLineBreaks(value, i + 1);
+        if (i < length && isQuote(value.charAt(i))) {
+            int closing = indexOfQuote(value, i + 1);
+            return (closing >= 0 ? closing : i) + 1;
+        }
+        int closing = indexOfQuote(value, i);
+        return closing >= 0 ? closing + 1 : -1;
+    }
+
+    private static String remove(String value, String keyword, char terminator) {
+        StringBuilder result = null;
+        int copied = 0;
+        int start = indexOfIgnoreCase(value, keyword, 0);
+        while (start >= 0) {
+            int end = start + keyword.length();
+            if (terminator != NO_TERMINATOR) {
+                int terminatorIndex = value.indexOf(terminator, end);
+                if (terminatorIndex < 0) {
+                    break;
+                }
+                end = terminatorIndex + 1;
+            }
+            if (result == null) {
+                result = new StringBuilder(value.length());
+            }
+            result.append(value, copied, start);
+            copied = end;
+            start = indexOfIgnoreCase(value, keyword, copied);
+        }
+        return result != null ? result.append(value, copied, value.length()).toString() : value;
+    }
+
+    private static int indexOfIgnoreCase(String value, String keyword, int from) {
+        int last = value.length() - keyword.length();
+        for (int i = from; i <= last; i++) {
+            if (regionMatches(value, i, keyword)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfLineTerminator(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            switch (value.charAt(i)) {
+                case '\n':
+                case '\r':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    return i;
+                default:
+            }
+        }
+        return -1;
+    }
+
+    private static int skipLineBreaks(String value, int from) {
+        int i = from;
+        while (i < value.length() && (value.charAt(i) == '\r' || value.charAt(i) == '\n')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOfQuote(String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            if (isQuote(value.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '\'' || c == '"';
+    }
+
+    private static int findKeywords(String value) {
+        int present = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            switch (value.charAt(i) | 0x20) {
+                case '<':
+                    present |= keywordAt(value, i, 0) | keywordAt(value, i, 2) | keywordAt(value, i, 3);
+                    break;
+                case 's':
+                    present |= keywordAt(value, i, 1);
+                    break;
+                case 'e':
+                    present |= keywordAt(value, i, 4) | keywordAt(value, i, 5);
+                    break;
+                case 'j':
+                    present |= keywordAt(value, i, 6);
+                    break;
+                case 'v':
+                    present |= keywordAt(value, i, 7);
+                    break;
+                case 'o':
+                    present |= keywordAt(value, i, 8) | keywordAt(value, i, 9);
+                    break;
+                default:
+            }
+        }
+        return present;
+    }
+
+    private static int keywordAt(String value, int offset, int stage) {
+        return regionMatches(value, offset, KEYWORDS[stage]) ? 1 << stage : 0;
+    }
+
+    private static boolean regionMatches(String value, int offset, String keyword) {
+        if (offset + keyword.length() > value.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            char expected = keyword.charAt(i);
+            char actual = value.charAt(offset + i);
+            if (actual != expected && !(Character.isLetter(expected) && (actual | 0x20) == expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String encode(String value) {
+        int length = value.length();
+        int first = 0;
+        while (first < length && replacement(value.charAt(first)) == null) {
+            first++;
+        }
+        if (first == length) {
+            return value;
+        }
+
+        StringBuilder encoded = new StringBuilder(length + 16);
+        encoded.append(value, 0, first);
+        for (int i = first; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement = replacement(c);
+            if (replacement != null) {
+                encoded.append(replacement);
+            } else {
+                encoded.append(c);
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static String replacement(char c) {
+        switch (c) {
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return "&quot;";
+            case '\'':
+                return "&#x27;";
+            case '/':
+                return "&#x2F;";
+            default:
+                return null;
+        }
+    }
+
     private static class XSSRequestWrapper extends HttpServletRequestWrapper {
-        public XSSRequestWrapper(HttpServletRequest request) {
+        private final Set<String> sanitizedHeaders;
+        private final Map<String, String[]> parameterValues = new HashMap<>();
+        private final Map<String, String> headers = new HashMap<>();
+
+        public XSSRequestWrapper(HttpServletRequest request, Set<String> sanitizedHeaders) {
             super(request);
+            this.sanitizedHeaders = sanitizedHeaders;
         }
 
         @Override
         public String[] getParameterValues(String parameter) {
-            String[] values = super.getParameterValues(parameter);
-            if (values == null) {
-                return null;
-            }
-            
-            String[] encodedValues = new String[values.length];
-            for (int i = 0; i < values.length; i++) {
-                encodedValues[i] = stripXSS(values[i]);
-            }
-            return encodedValues;
+            String[] encodedValues = sanitizedValues(parameter);
+            return encodedValues != null ? encodedValues.clone() : null;
         }
 
         @Override
         public String getParameter(String parameter) {
-            String value = super.getParameter(parameter);
-            return stripXSS(value);
+            String[] encodedValues = sanitizedValues(parameter);
+            return encodedValues != null && encodedValues.length > 0 ? encodedValues[0] : null;
         }
 
         @Override
         public String getHeader(String name) {
             String value = super.getHeader(name);
-            return stripXSS(value);
+            if (value == null || name == null || !sanitizedHeaders.contains(name.toLowerCase(Locale.ROOT))) {
+                return value;
+            }
+            return headers.computeIfAbsent(value, XSSFilter::stripXSS);
         }
 
-        
-        private String stripXSS(String value) {
-            if (StringUtils.isBlank(value)) {
-                return value;
+        private String[] sanitizedValues(String parameter) {
+            if (parameterValues.containsKey(parameter)) {
+                return parameterValues.get(parameter);
             }
-            
-            String sanitized = value;
-            for (Pattern pattern : XSS_PATTERNS) {
-                sanitized = pattern.matcher(sanitized).replaceAll("");
+            String[] values = super.getParameterValues(parameter);
+            String[] encodedValues = null;
+            if (values != null) {
+                encodedValues = new String[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    encodedValues[i] = stripXSS(values[i]);
+                }
             }
-
-            sanitized = sanitized.replace("<", "&lt;")
-                                .replace(">", "&gt;")
-                                .replace("\"", "&quot;")
-                                .replace("'", "&#x27;")
-                                .replace("/", "&#x2F;");
-            
-            return sanitized;
+            parameterValues.put(parameter, encodedValues);
+            return encodedValues;
         }
     }
 }
-
@@ -0,0 +1,26 @@
+package com.totalizator.listener;
+
+import com.totalizator.service.factory.ServiceFactory;
+import com.totalizator.service.placement.BetPlacementQueue;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+
+@WebListener
+public class BackgroundTaskListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServiceFactory serviceFactory = ServiceFactory.getInstance();
+        serviceFactory.getBetPlacementQueue().ifPresent(BetPlacementQueue::start);
+        serviceFactory.getSettlementJobService().start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        ServiceFactory serviceFactory = ServiceFactory.getInstance();
+        serviceFactory.getSettlementJobService().shutdown();
+        serviceFactory.getBetPlacementQueue().ifPresent(BetPlacementQueue::shutdown);
+    }
+}
@@ -40,6 +40,24 @@ public class Competition {
         this.status = CompetitionStatus.SCHEDULED;
     }
 
+    
+    public Competition(Competition other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.sportType = other.sportType;
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+        this.status = other.status;
+        this.result = other.result;
+        this.team1 = other.team1;
+        this.team2 = other.team2;
+        this.score1 = other.score1;
+        this.score2 = other.score2;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     public int getId() {
         return id;
     }
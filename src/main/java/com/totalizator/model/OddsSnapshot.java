@@ -0,0 +1,50 @@
+package com.totalizator.model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+
+public final class OddsSnapshot {
+    private final int competitionId;
+    private final BigDecimal[] multipliers;
+
+    private OddsSnapshot(int competitionId, BigDecimal[] multipliers) {
+        this.competitionId = competitionId;
+        this.multipliers = multipliers;
+    }
+
+    public static OddsSnapshot of(int competitionId, Map<Integer, BigDecimal> multipliersByBetTypeId) {
+        int maxId = 0;
+        for (Integer betTypeId : multipliersByBetTypeId.keySet()) {
+            maxId = Math.max(maxId, betTypeId);
+        }
+        BigDecimal[] multipliers = new BigDecimal[maxId + 1];
+        for (Map.Entry<Integer, BigDecimal> entry : multipliersByBetTypeId.entrySet()) {
+            if (entry.getKey() >= 0) {
+                multipliers[entry.getKey()] = entry.getValue();
+            }
+        }
+        return new OddsSnapshot(competitionId, multipliers);
+    }
+
+    public int getCompetitionId() {
+        return competitionId;
+    }
+
+    public BigDecimal getMultiplier(int betTypeId) {
+        return betTypeId >= 0 && betTypeId < multipliers.length ? multipliers[betTypeId] : null;
+    }
+
+    public BigDecimal getMultiplier(BetType betType) {
+        BigDecimal multiplier = getMultiplier(betType.getId());
+        return multiplier != null ? multiplier : betType.getMultiplier();
+    }
+
+    @Override
+    public String toString() {
+        return "OddsSnapshot{" +
+                "competitionId=" + competitionId +
+                ", betTypes=" + multipliers.length +
+                '}';
+    }
+}
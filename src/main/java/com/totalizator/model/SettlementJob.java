@@ -0,0 +1,174 @@
+package com.totalizator.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+
+public class SettlementJob {
+    private int id;
+    private int competitionId;
+    private String competitionTitle;
+    private JobStatus status;
+    private int totalBets;
+    private int processedBets;
+    private int lastBetId;
+    private int attempts;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime nextAttemptAt;
+
+
+    public enum JobStatus {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+
+    public SettlementJob() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getCompetitionId() {
+        return competitionId;
+    }
+
+    public void setCompetitionId(int competitionId) {
+        this.competitionId = competitionId;
+    }
+
+    public String getCompetitionTitle() {
+        return competitionTitle;
+    }
+
+    public void setCompetitionTitle(String competitionTitle) {
+        this.competitionTitle = competitionTitle;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getTotalBets() {
+        return totalBets;
+    }
+
+    public void setTotalBets(int totalBets) {
+        this.totalBets = totalBets;
+    }
+
+    public int getProcessedBets() {
+        return processedBets;
+    }
+
+    public void setProcessedBets(int processedBets) {
+        this.processedBets = processedBets;
+    }
+
+    public int getLastBetId() {
+        return lastBetId;
+    }
+
+    public void setLastBetId(int lastBetId) {
+        this.lastBetId = lastBetId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public double getProgress() {
+        if (totalBets <= 0) {
+            return status == JobStatus.DONE ? 1.0 : 0.0;
+        }
+        return Math.min(1.0, (double) processedBets / totalBets);
+    }
+
+    public double getThroughput() {
+        if (startedAt == null || processedBets == 0) {
+            return 0.0;
+        }
+        LocalDateTime end = finishedAt != null ? finishedAt : updatedAt;
+        if (end == null) {
+            return 0.0;
+        }
+        long millis = Duration.between(startedAt, end).toMillis();
+        return millis > 0 ? processedBets * 1000.0 / millis : processedBets;
+    }
+
+    @Override
+    public String toString() {
+        return "SettlementJob{" +
+                "id=" + id +
+                ", competitionId=" + competitionId +
+                ", status=" + status +
+                ", processedBets=" + processedBets +
+                ", totalBets=" + totalBets +
+                ", lastBetId=" + lastBetId +
+                '}';
+    }
+}
@@ -33,6 +33,20 @@ public class User {
         this.active = true;
     }
 
+    public User(User other) {
+        this.id = other.id;
+        this.username = other.username;
+        this.email = other.email;
+        this.password = other.password;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.role = other.role;
+        this.balance = other.balance;
+        this.active = other.active;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     public int getId() {
         return id;
     }
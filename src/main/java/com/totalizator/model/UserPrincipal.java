@@ -0,0 +1,56 @@
+package com.totalizator.model;
+
+import java.io.Serializable;
+
+
+public final class UserPrincipal implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public static final String SESSION_ATTRIBUTE = "principal";
+
+    private final int id;
+    private final String username;
+    private final int roleId;
+    private final String roleName;
+
+    public UserPrincipal(int id, String username, int roleId, String roleName) {
+        this.id = id;
+        this.username = username;
+        this.roleId = roleId;
+        this.roleName = roleName;
+    }
+
+    public static UserPrincipal from(User user) {
+        Role role = user.getRole();
+        return new UserPrincipal(user.getId(), user.getUsername(),
+                role != null ? role.getId() : 0, role != null ? role.getName() : null);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getRoleId() {
+        return roleId;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public boolean hasRole(String role) {
+        return role != null && role.equals(roleName);
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", roleName='" + roleName + '\'' +
+                '}';
+    }
+}
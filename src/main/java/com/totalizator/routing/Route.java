@@ -0,0 +1,83 @@
+package com.totalizator.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+public enum Route {
+    HOME("GET", "/", RouteAccess.PUBLIC),
+    INDEX_PAGE(Route.ANY, "/index.jsp", RouteAccess.PUBLIC),
+    LOGIN(Route.ANY, "/login", RouteAccess.PUBLIC),
+    REGISTER(Route.ANY, "/register", RouteAccess.PUBLIC),
+    LOCALE(Route.ANY, "/locale", RouteAccess.PUBLIC),
+    PAGES(Route.ANY, "/pages/**", RouteAccess.PUBLIC),
+    LOGOUT(Route.ANY, "/logout", RouteAccess.AUTHENTICATED),
+
+    API_STREAM("GET", "/api/stream", RouteAccess.PUBLIC),
+    API_COMPETITIONS("GET", "/api/competitions", RouteAccess.PUBLIC),
+    API_COMPETITION("GET", "/api/competitions/{competitionId:int}", RouteAccess.PUBLIC),
+    API_BET_TYPES("GET", "/api/bet-types", RouteAccess.PUBLIC),
+    API_BETS("GET", "/api/bets", RouteAccess.AUTHENTICATED),
+    API_PLACE_BET("POST", "/api/bets", RouteAccess.AUTHENTICATED),
+    API_CANCEL_BET("DELETE", "/api/bets/{betId:int}", RouteAccess.AUTHENTICATED),
+    API(Route.ANY, "/api/**", RouteAccess.PUBLIC),
+
+    BETS("GET", "/bets", RouteAccess.AUTHENTICATED),
+    BET_FORM("GET", "/bets/create/{competitionId:int}", RouteAccess.AUTHENTICATED),
+    BET_CREATE("POST", "/bets/create", RouteAccess.AUTHENTICATED),
+    BET_CANCEL("POST", "/bets/cancel/{betId:int}", RouteAccess.AUTHENTICATED),
+
+    ADMIN_DASHBOARD("GET", "/admin", RouteAccess.ADMIN),
+    ADMIN_COMPETITIONS("GET", "/admin/competitions", RouteAccess.ADMIN),
+    ADMIN_USERS("GET", "/admin/users", RouteAccess.ADMIN),
+    ADMIN_GENERATE_RESULT("GET", "/admin/competition/generate/{competitionId:int}", RouteAccess.ADMIN),
+    ADMIN_DELETE_USER("GET", "/admin/user/delete/{userId:int}", RouteAccess.ADMIN),
+    ADMIN_CREATE_COMPETITION("POST", "/admin/competition/create", RouteAccess.ADMIN),
+    ADMIN_EDIT_COMPETITION("POST", "/admin/competition/edit/{competitionId:int}", RouteAccess.ADMIN),
+    ADMIN_UPDATE_COMPETITION("POST", "/admin/competition/update", RouteAccess.ADMIN),
+    ADMIN_CREATE_USER("POST", "/admin/user/create", RouteAccess.ADMIN),
+    ADMIN_AREA(Route.ANY, "/admin/**", RouteAccess.ADMIN),
+
+    BOOKMAKER_COMPETITIONS("GET", "/bookmaker", RouteAccess.BOOKMAKER),
+    BOOKMAKER_ODDS_FORM("GET", "/bookmaker/competition/{competitionId:int}", RouteAccess.BOOKMAKER),
+    BOOKMAKER_UPDATE_ODDS("POST", "/bookmaker/odds/update", RouteAccess.BOOKMAKER),
+    BOOKMAKER_AREA(Route.ANY, "/bookmaker/**", RouteAccess.BOOKMAKER);
+
+    static final String ANY = "*";
+
+    private final String method;
+    private final String pattern;
+    private final RouteAccess access;
+    private final List<String> variableNames;
+
+    Route(String method, String pattern, RouteAccess access) {
+        this.method = method;
+        this.pattern = pattern;
+        this.access = access;
+        List<String> names = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.startsWith("{")) {
+                int typeSeparator = segment.indexOf(':');
+                names.add(segment.substring(1, typeSeparator > 0 ? typeSeparator : segment.length() - 1));
+            }
+        }
+        this.variableNames = Collections.unmodifiableList(names);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public RouteAccess getAccess() {
+        return access;
+    }
+
+    int indexOfVariable(String name) {
+        return variableNames.indexOf(name);
+    }
+}
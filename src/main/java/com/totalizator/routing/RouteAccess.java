@@ -0,0 +1,24 @@
+package com.totalizator.routing;
+
+import com.totalizator.model.UserPrincipal;
+
+
+public enum RouteAccess {
+    PUBLIC(null),
+    AUTHENTICATED(null),
+    ADMIN("ADMIN"),
+    BOOKMAKER("BOOKMAKER");
+
+    private final String roleName;
+
+    RouteAccess(String roleName) {
+        this.roleName = roleName;
+    }
+
+    public boolean permits(UserPrincipal principal) {
+        if (this == PUBLIC) {
+            return true;
+        }
+        return principal != null && (roleName == null || principal.hasRole(roleName));
+    }
+}
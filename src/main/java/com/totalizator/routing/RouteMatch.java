@@ -0,0 +1,48 @@
+package com.totalizator.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+
+public final class RouteMatch {
+    public static final String ATTRIBUTE = "routeMatch";
+
+    private final Route route;
+    private final Object[] values;
+
+    RouteMatch(Route route, Object[] values) {
+        this.route = route;
+        this.values = values;
+    }
+
+    public static RouteMatch from(HttpServletRequest request) {
+        Object match = request.getAttribute(ATTRIBUTE);
+        return match instanceof RouteMatch ? (RouteMatch) match : null;
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public int getInt(String name) {
+        return (Integer) value(name);
+    }
+
+    public String getString(String name) {
+        return String.valueOf(value(name));
+    }
+
+    private Object value(String name) {
+        int index = route.indexOfVariable(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Route " + route + " has no variable " + name);
+        }
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+        return "RouteMatch{" +
+                "route=" + route +
+                '}';
+    }
+}
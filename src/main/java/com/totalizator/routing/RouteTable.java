@@ -0,0 +1,190 @@
+package com.totalizator.routing;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public final class RouteTable {
+    private static final RouteTable instance = new RouteTable(Route.values());
+    private static final String CATCH_ALL = "**";
+
+    private final Node root = new Node();
+
+    private RouteTable(Route[] routes) {
+        for (Route route : routes) {
+            add(route);
+        }
+    }
+
+    public static RouteTable getInstance() {
+        return instance;
+    }
+
+    public RouteMatch match(String method, String path) {
+        String lookupMethod = "HEAD".equals(method) ? "GET" : method;
+        List<String> segments = split(path);
+        return match(root, segments, 0, lookupMethod, new Object[segments.size()], 0);
+    }
+
+    public static String normalize(String path) {
+        StringBuilder normalized = new StringBuilder(path.length());
+        for (String segment : split(path)) {
+            String decoded;
+            try {
+                decoded = segment.indexOf('%') >= 0
+                        ? URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8)
+                        : segment;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (decoded.equals(".") || decoded.equals("..")
+                    || decoded.indexOf('/') >= 0 || decoded.indexOf('\\') >= 0 || decoded.indexOf(';') >= 0) {
+                return null;
+            }
+            normalized.append('/').append(decoded);
+        }
+        return normalized.length() > 0 ? normalized.toString() : "/";
+    }
+
+    static List<String> split(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            int parameters = path.indexOf(';', start);
+            int segmentEnd = parameters >= 0 && parameters < end ? parameters : end;
+            if (segmentEnd > start) {
+                segments.add(path.substring(start, segmentEnd));
+            }
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private void add(Route route) {
+        Node node = root;
+        for (String segment : split(route.getPattern())) {
+            if (segment.equals(CATCH_ALL)) {
+                if (node.catchAll == null) {
+                    node.catchAll = new Node();
+                }
+                node = node.catchAll;
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                VariableType type = VariableType.of(segment);
+                if (node.variable == null) {
+                    node.variable = new Node();
+                    node.variableType = type;
+                } else if (node.variableType != type) {
+                    throw new IllegalStateException("Conflicting variable types at " + route.getPattern());
+                }
+                node = node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        if (node.routes.putIfAbsent(route.getMethod(), route) != null) {
+            throw new IllegalStateException("Duplicate route " + route.getMethod() + " " + route.getPattern());
+        }
+    }
+
+    private RouteMatch match(Node node, List<String> segments, int index, String method,
+                             Object[] values, int valueCount) {
+        if (index == segments.size()) {
+            Route route = node.find(method);
+            if (route == null && node.catchAll != null) {
+                route = node.catchAll.find(method);
+            }
+            return route != null ? new RouteMatch(route, Arrays.copyOf(values, valueCount)) : null;
+        }
+
+        String segment = segments.get(index);
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+            RouteMatch match = match(literal, segments, index + 1, method, values, valueCount);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (node.variable != null) {
+            Object value = node.variableType.parse(segment);
+            if (value != null) {
+                values[valueCount] = value;
+                RouteMatch match = match(node.variable, segments, index + 1, method, values, valueCount + 1);
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+        if (node.catchAll != null) {
+            Route route = node.catchAll.find(method);
+            if (route != null) {
+                return new RouteMatch(route, Arrays.copyOf(values, valueCount));
+            }
+        }
+        return null;
+    }
+
+    private enum VariableType {
+        INT {
+            @Override
+            Object parse(String segment) {
+                int length = segment.length();
+                if (length == 0 || length > 10) {
+                    return null;
+                }
+                long value = 0;
+                for (int i = 0; i < length; i++) {
+                    char c = segment.charAt(i);
+                    if (c < '0' || c > '9') {
+                        return null;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                return value <= Integer.MAX_VALUE ? (int) value : null;
+            }
+        },
+        STRING {
+            @Override
+            Object parse(String segment) {
+                return segment;
+            }
+        };
+
+        abstract Object parse(String segment);
+
+        static VariableType of(String segment) {
+            int typeSeparator = segment.indexOf(':');
+            if (typeSeparator < 0) {
+                return STRING;
+            }
+            String type = segment.substring(typeSeparator + 1, segment.length() - 1);
+            return switch (type) {
+                case "int" -> INT;
+                case "string" -> STRING;
+                default -> throw new IllegalArgumentException("Unknown path variable type: " + type);
+            };
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<String, Route> routes = new HashMap<>(4);
+        private Node variable;
+        private VariableType variableType;
+        private Node catchAll;
+
+        private Route find(String method) {
+            Route route = routes.get(method);
+            return route != null ? route : routes.get(Route.ANY);
+        }
+    }
+}
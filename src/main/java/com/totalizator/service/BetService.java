@@ -1,5 +1,6 @@
 package com.totalizator.service;
 
+import com.totalizator.dao.Page;
 import com.totalizator.model.Bet;
 
 import java.util.List;
@@ -18,6 +19,9 @@ public interface BetService {
     List<Bet> findByUserId(Integer userId);
     
     
+    Page<Bet> findPageByUserId(Integer userId, String cursor, int limit);
+    
+    
     List<Bet> findByCompetitionId(Integer competitionId);
     
     
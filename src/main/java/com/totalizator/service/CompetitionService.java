@@ -1,5 +1,6 @@
 package com.totalizator.service;
 
+import com.totalizator.dao.Page;
 import com.totalizator.model.Competition;
 
 import java.util.List;
@@ -18,6 +19,12 @@ public interface CompetitionService {
     List<Competition> findByStatus(String status);
     
     
+    Page<Competition> findPage(String cursor, int limit);
+    
+    
+    Page<Competition> findPageByStatus(String status, String cursor, int limit);
+    
+    
     Competition createCompetition(Competition competition);
     
     
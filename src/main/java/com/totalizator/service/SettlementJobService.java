@@ -0,0 +1,21 @@
+package com.totalizator.service;
+
+import com.totalizator.model.SettlementJob;
+
+import java.util.List;
+
+
+public interface SettlementJobService {
+
+
+    void start();
+
+
+    void shutdown();
+
+
+    void wakeUp();
+
+
+    List<SettlementJob> findRecentJobs(int limit);
+}
@@ -1,7 +1,9 @@
 package com.totalizator.service;
 
+import com.totalizator.dao.Page;
 import com.totalizator.model.User;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +23,9 @@ public interface UserService {
     List<User> findAll();
     
     
+    Page<User> findPage(String cursor, int limit);
+    
+    
     User register(User user);
     
     
@@ -30,6 +35,12 @@ public interface UserService {
     boolean updateUser(User user);
     
     
+    boolean debitBalance(Integer userId, BigDecimal amount);
+    
+    
+    boolean creditBalance(Integer userId, BigDecimal amount);
+    
+    
     boolean deleteUser(Integer id);
 }
 
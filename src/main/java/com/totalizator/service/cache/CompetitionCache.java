@@ -0,0 +1,187 @@
+package com.totalizator.service.cache;
+
+import com.totalizator.dao.Page;
+import com.totalizator.model.Competition;
+import com.totalizator.util.SingleFlight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+public class CompetitionCache {
+    private final long ttlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final LinkedHashMap<Integer, Entry> byId;
+    private final ConcurrentHashMap<String, Entry> lists = new ConcurrentHashMap<>();
+    private final SingleFlight<Integer, Optional<Competition>> idLoads = new SingleFlight<>();
+    private final SingleFlight<String, Object> listLoads = new SingleFlight<>();
+    private final ExecutorService revalidator;
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModifiedMillis = System.currentTimeMillis();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    public CompetitionCache(int maxEntries, long ttlMillis, long staleWhileRevalidateMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.staleWhileRevalidateNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, staleWhileRevalidateMillis));
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.revalidator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "competition-cache-revalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Optional<Competition> getById(Integer id, Supplier<Optional<Competition>> loader) {
+        Entry entry;
+        synchronized (this) {
+            entry = byId.get(id);
+        }
+        Competition competition;
+        if (entry != null && entry.isFresh(System.nanoTime())) {
+            hits.increment();
+            competition = (Competition) entry.value;
+        } else {
+            misses.increment();
+            competition = idLoads.load(id, () -> loadById(id, loader)).orElse(null);
+        }
+        return competition != null ? Optional.of(new Competition(competition)) : Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Competition> getList(String key, Supplier<List<Competition>> loader) {
+        return copyOf((List<Competition>) lookupList(key, loader));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Page<Competition> getPage(String key, Supplier<Page<Competition>> loader) {
+        Page<Competition> page = (Page<Competition>) lookupList(key, loader);
+        return new Page<>(copyOf(page.getItems()), page.getNextCursor(), page.getPreviousCursor());
+    }
+
+    public synchronized void invalidate(Integer id) {
+        version.incrementAndGet();
+        lastModifiedMillis = System.currentTimeMillis();
+        byId.remove(id);
+        lists.clear();
+    }
+
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        lastModifiedMillis = System.currentTimeMillis();
+        byId.clear();
+        lists.clear();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getCoalescedLoads() {
+        return idLoads.getSharedCount() + listLoads.getSharedCount();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public synchronized int size() {
+        return byId.size() + lists.size();
+    }
+
+    private Object lookupList(String key, Supplier<?> loader) {
+        Entry entry = lists.get(key);
+        long now = System.nanoTime();
+        if (entry != null && entry.isFresh(now)) {
+            hits.increment();
+            return entry.value;
+        }
+        if (entry != null && now - entry.freshUntilNanos < staleWhileRevalidateNanos) {
+            hits.increment();
+            staleHits.increment();
+            listLoads.loadAsync(key, () -> loadList(key, loader), revalidator);
+            return entry.value;
+        }
+        misses.increment();
+        return listLoads.load(key, () -> loadList(key, loader));
+    }
+
+    private static List<Competition> copyOf(List<Competition> competitions) {
+        List<Competition> copies = new ArrayList<>(competitions.size());
+        for (Competition competition : competitions) {
+            copies.add(new Competition(competition));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private Optional<Competition> loadById(Integer id, Supplier<Optional<Competition>> loader) {
+        long loadVersion = version.get();
+        Optional<Competition> competition = loader.get();
+        synchronized (this) {
+            if (version.get() == loadVersion) {
+                byId.put(id, new Entry(competition.orElse(null), System.nanoTime() + ttlNanos));
+            }
+        }
+        return competition;
+    }
+
+    private Object loadList(String key, Supplier<?> loader) {
+        long loadVersion = version.get();
+        Object value = loader.get();
+        synchronized (this) {
+            if (version.get() == loadVersion) {
+                lists.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long freshUntilNanos;
+
+        private Entry(Object value, long freshUntilNanos) {
+            this.value = value;
+            this.freshUntilNanos = freshUntilNanos;
+        }
+
+        private boolean isFresh(long now) {
+            return now - freshUntilNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.totalizator.service.cache;
+
+import com.totalizator.model.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+public class UserCache {
+    private final long ttlNanos;
+    private final LinkedHashMap<Integer, Entry> users;
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserCache(int maxEntries, long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<User> get(Integer id, Supplier<Optional<User>> loader) {
+        Entry entry;
+        synchronized (this) {
+            entry = users.get(id);
+        }
+        if (entry != null && System.nanoTime() - entry.expiresAtNanos < 0) {
+            hits.increment();
+            return Optional.of(new User(entry.user));
+        }
+        misses.increment();
+        long loadVersion = version.get();
+        Optional<User> user = loader.get();
+        if (user.isPresent()) {
+            synchronized (this) {
+                if (version.get() == loadVersion) {
+                    users.put(id, new Entry(new User(user.get()), System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return user;
+    }
+
+    public synchronized void evict(Integer id) {
+        version.incrementAndGet();
+        users.remove(id);
+    }
+
+    public synchronized void invalidateAll() {
+        version.incrementAndGet();
+        users.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAtNanos;
+
+        private Entry(User user, long expiresAtNanos) {
+            this.user = user;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
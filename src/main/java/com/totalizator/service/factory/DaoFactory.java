@@ -3,14 +3,23 @@ package com.totalizator.service.factory;
 import com.totalizator.dao.*;
 import com.totalizator.dao.impl.*;
 import com.totalizator.model.BetType;
+import com.totalizator.util.AppConfig;
 import com.totalizator.util.ConnectionPool;
 
 public class DaoFactory {
     private static final DaoFactory instance = new DaoFactory();
+    private static final long DEFAULT_BET_TYPE_REFRESH_MILLIS = 300_000;
+    private static final int DEFAULT_ODDS_CACHE_SIZE = 1000;
     private final ConnectionPool connectionPool;
+    private final CachedBetTypeDao betTypeDao;
+    private final CachedBookmakerDao bookmakerDao;
 
     private DaoFactory() {
         this.connectionPool = ConnectionPool.getInstance();
+        this.betTypeDao = new CachedBetTypeDao(new BetTypeDaoImpl(connectionPool),
+                AppConfig.getInstance().getLong("cache.betTypes.refreshMillis", DEFAULT_BET_TYPE_REFRESH_MILLIS));
+        this.bookmakerDao = new CachedBookmakerDao(new BookmakerDaoImpl(connectionPool),
+                AppConfig.getInstance().getInt("cache.odds.maxEntries", DEFAULT_ODDS_CACHE_SIZE));
     }
 
     public static DaoFactory getInstance() {
@@ -18,7 +27,7 @@ public class DaoFactory {
     }
 
     public BookmakerDao getBookmakerDao() {
-        return new BookmakerDaoImpl(connectionPool);
+        return bookmakerDao;
     }
 
     public UserDao getUserDao() {
@@ -29,12 +38,16 @@ public class DaoFactory {
         return new CompetitionDaoImpl(connectionPool);
     }
 
+    public SettlementJobDao getSettlementJobDao() {
+        return new SettlementJobDaoImpl(connectionPool);
+    }
+
     public BetDao getBetDao() {
-        return new BetDaoImpl(connectionPool, getUserDao(), getCompetitionDao());
+        return new BetDaoImpl(connectionPool);
     }
 
     public Dao<BetType, Integer> getBetTypeDao() {
-        return new BetTypeDaoImpl(connectionPool);
+        return betTypeDao;
     }
 }
 
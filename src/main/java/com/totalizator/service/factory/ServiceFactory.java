@@ -2,22 +2,73 @@ package com.totalizator.service.factory;
 
 import com.totalizator.service.BetService;
 import com.totalizator.service.CompetitionService;
+import com.totalizator.service.SettlementJobService;
 import com.totalizator.service.UserService;
+import com.totalizator.service.cache.CompetitionCache;
+import com.totalizator.service.cache.UserCache;
 import com.totalizator.service.impl.BetServiceImpl;
 import com.totalizator.service.impl.CompetitionServiceImpl;
+import com.totalizator.service.impl.SettlementJobServiceImpl;
 import com.totalizator.service.impl.UserServiceImpl;
+import com.totalizator.service.placement.BetPlacementQueue;
+import com.totalizator.util.AppConfig;
+
+import java.util.Optional;
 
 public class ServiceFactory {
     private static final ServiceFactory instance = new ServiceFactory();
+    private static final int DEFAULT_COMPETITION_CACHE_SIZE = 1000;
+    private static final long DEFAULT_COMPETITION_CACHE_TTL_MILLIS = 60_000;
+    private static final long DEFAULT_COMPETITION_CACHE_SWR_MILLIS = 30_000;
+    private static final int DEFAULT_USER_CACHE_SIZE = 10_000;
+    private static final long DEFAULT_USER_CACHE_TTL_MILLIS = 30_000;
+    private static final int DEFAULT_SETTLEMENT_WORKERS = 2;
+    private static final int DEFAULT_SETTLEMENT_CHUNK_SIZE = 500;
+    private static final long DEFAULT_SETTLEMENT_POLL_MILLIS = 5_000;
+    private static final int DEFAULT_SETTLEMENT_LEASE_SECONDS = 300;
+    private static final int DEFAULT_SETTLEMENT_MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_SETTLEMENT_RETRY_BACKOFF_SECONDS = 30;
+    private static final long DEFAULT_SETTLEMENT_MAX_RETRY_BACKOFF_SECONDS = 3600;
+    private static final int DEFAULT_PLACEMENT_BATCH_SIZE = 100;
+    private static final long DEFAULT_PLACEMENT_MAX_WAIT_MILLIS = 5;
+    private static final int DEFAULT_PLACEMENT_QUEUE_CAPACITY = 10_000;
+    private static final long DEFAULT_PLACEMENT_TIMEOUT_MILLIS = 2_000;
     
+    private final CompetitionCache competitionCache;
+    private final UserCache userCache;
     private final UserService userService;
     private final CompetitionService competitionService;
     private final BetService betService;
+    private final SettlementJobService settlementJobService;
+    private final BetPlacementQueue betPlacementQueue;
     
     private ServiceFactory() {
-        this.userService = new UserServiceImpl();
-        this.competitionService = new CompetitionServiceImpl();
-        this.betService = new BetServiceImpl();
+        AppConfig config = AppConfig.getInstance();
+        this.competitionCache = new CompetitionCache(
+                config.getInt("cache.competitions.maxEntries", DEFAULT_COMPETITION_CACHE_SIZE),
+                config.getLong("cache.competitions.ttlMillis", DEFAULT_COMPETITION_CACHE_TTL_MILLIS),
+                config.getLong("cache.competitions.staleWhileRevalidateMillis", DEFAULT_COMPETITION_CACHE_SWR_MILLIS));
+        this.userCache = new UserCache(
+                config.getInt("cache.users.maxEntries", DEFAULT_USER_CACHE_SIZE),
+                config.getLong("cache.users.ttlMillis", DEFAULT_USER_CACHE_TTL_MILLIS));
+        this.userService = new UserServiceImpl(userCache);
+        this.competitionService = new CompetitionServiceImpl(competitionCache);
+        this.betPlacementQueue = config.getBoolean("placement.batch.enabled", false)
+                ? new BetPlacementQueue(DaoFactory.getInstance().getBetDao(), userCache,
+                        config.getInt("placement.batch.maxSize", DEFAULT_PLACEMENT_BATCH_SIZE),
+                        config.getLong("placement.batch.maxWaitMillis", DEFAULT_PLACEMENT_MAX_WAIT_MILLIS),
+                        config.getInt("placement.batch.queueCapacity", DEFAULT_PLACEMENT_QUEUE_CAPACITY),
+                        config.getLong("placement.batch.timeoutMillis", DEFAULT_PLACEMENT_TIMEOUT_MILLIS))
+                : null;
+        this.betService = new BetServiceImpl(userService, competitionService, userCache, betPlacementQueue);
+        this.settlementJobService = new SettlementJobServiceImpl(competitionService, userCache,
+                config.getInt("settlement.jobs.workers", DEFAULT_SETTLEMENT_WORKERS),
+                config.getInt("settlement.jobs.chunkSize", DEFAULT_SETTLEMENT_CHUNK_SIZE),
+                config.getLong("settlement.jobs.pollMillis", DEFAULT_SETTLEMENT_POLL_MILLIS),
+                config.getInt("settlement.jobs.leaseSeconds", DEFAULT_SETTLEMENT_LEASE_SECONDS),
+                config.getInt("settlement.jobs.maxAttempts", DEFAULT_SETTLEMENT_MAX_ATTEMPTS),
+                config.getLong("settlement.jobs.retryBackoffSeconds", DEFAULT_SETTLEMENT_RETRY_BACKOFF_SECONDS),
+                config.getLong("settlement.jobs.maxRetryBackoffSeconds", DEFAULT_SETTLEMENT_MAX_RETRY_BACKOFF_SECONDS));
     }
     
     public static ServiceFactory getInstance() {
@@ -35,5 +86,17 @@ public class ServiceFactory {
     public BetService getBetService() {
         return betService;
     }
+    
+    public SettlementJobService getSettlementJobService() {
+        return settlementJobService;
+    }
+    
+    public Optional<BetPlacementQueue> getBetPlacementQueue() {
+        return Optional.ofNullable(betPlacementQueue);
+    }
+    
+    public CompetitionCache getCompetitionCache() {
+        return competitionCache;
+    }
 }
 
@@ -1,38 +1,75 @@
 package com.totalizator.service.impl;
 
 import com.totalizator.dao.BetDao;
+import com.totalizator.dao.BookmakerDao;
 import com.totalizator.dao.Dao;
+import com.totalizator.dao.Page;
 import com.totalizator.model.Bet;
 import com.totalizator.model.BetType;
 import com.totalizator.model.Competition;
+import com.totalizator.model.OddsSnapshot;
 import com.totalizator.model.User;
 import com.totalizator.service.BetService;
 import com.totalizator.service.CompetitionService;
 import com.totalizator.service.UserService;
+import com.totalizator.service.cache.UserCache;
 import com.totalizator.service.factory.DaoFactory;
+import com.totalizator.service.placement.BetPlacementQueue;
+import com.totalizator.service.placement.PlacementTimeoutException;
+import com.totalizator.service.settlement.BetEvaluator;
+import com.totalizator.service.settlement.Outcome;
+import com.totalizator.service.settlement.PartitionedSettlement;
+import com.totalizator.util.AppConfig;
+import com.totalizator.util.TransactionManager;
 import com.totalizator.util.ValidationUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 
 public class BetServiceImpl implements BetService {
     private static final Logger logger = LogManager.getLogger();
+    private static final String ROW_SETTLEMENT = "row";
+    private static final String PARALLEL_SETTLEMENT = "parallel";
     private final BetDao betDao;
+    private final BookmakerDao bookmakerDao;
     private final UserService userService;
+    private final UserCache userCache;
     private final CompetitionService competitionService;
     private final Dao<BetType, Integer> betTypeDao;
+    private final BetEvaluator betEvaluator = new BetEvaluator();
+    private final boolean rowSettlement;
+    private final PartitionedSettlement partitionedSettlement;
+    private final BetPlacementQueue placementQueue;
 
     
-    public BetServiceImpl() {
+    public BetServiceImpl(UserService userService, CompetitionService competitionService, UserCache userCache,
+                          BetPlacementQueue placementQueue) {
         this.betDao = DaoFactory.getInstance().getBetDao();
-        this.userService = new UserServiceImpl();
-        this.competitionService = new CompetitionServiceImpl();
+        this.bookmakerDao = DaoFactory.getInstance().getBookmakerDao();
+        this.userService = userService;
+        this.userCache = userCache;
+        this.competitionService = competitionService;
+        this.placementQueue = placementQueue;
         this.betTypeDao = DaoFactory.getInstance().getBetTypeDao();
+        AppConfig config = AppConfig.getInstance();
+        String settlementMode = config.getString("settlement.mode", "set");
+        this.rowSettlement = ROW_SETTLEMENT.equalsIgnoreCase(settlementMode);
+        this.partitionedSettlement = PARALLEL_SETTLEMENT.equalsIgnoreCase(settlementMode)
+                ? new PartitionedSettlement(betDao,
+                        config.getInt("settlement.parallelism", Runtime.getRuntime().availableProcessors()),
+                        config.getInt("settlement.batchSize", 1000))
+                : null;
     }
 
     @Override
@@ -56,6 +93,14 @@ public class BetServiceImpl implements BetService {
         return betDao.findByUserId(userId);
     }
 
+    @Override
+    public Page<Bet> findPageByUserId(Integer userId, String cursor, int limit) {
+        if (!ValidationUtil.isValidId(userId)) {
+            return Page.empty();
+        }
+        return betDao.findPageByUserId(userId, cursor, limit);
+    }
+
     @Override
     public List<Bet> findByCompetitionId(Integer competitionId) {
         if (!ValidationUtil.isValidId(competitionId)) {
@@ -68,17 +113,37 @@ public class BetServiceImpl implements BetService {
     public Bet placeBet(Bet bet) {
         validateBet(bet);
 
-        User user = bet.getUser();
-        Optional<User> userOptional = userService.findById(user.getId());
-        if (userOptional.isEmpty()) {
-            throw new IllegalArgumentException("User not found");
+        if (placementQueue != null && !TransactionManager.isActive()) {
+            Competition competition = findOpenCompetition(bet);
+            bet.setStatus(Bet.BetStatus.PENDING);
+            CompletableFuture<Bet> placement = placementQueue.submit(bet);
+            if (placement != null) {
+                if (awaitPlacement(bet, placement) == null) {
+                    rejectDebit(bet.getUser());
+                }
+                logger.info("Placed bet {}: user={}, competition={}, amount={}",
+                        bet.getId(), bet.getUser().getUsername(), competition.getTitle(), bet.getAmount());
+                return bet;
+            }
         }
+
+        return TransactionManager.inTransaction(() -> {
+            Competition competition = findOpenCompetition(bet);
+
+            User user = bet.getUser();
+            if (!userService.debitBalance(user.getId(), bet.getAmount())) {
+                rejectDebit(user);
+            }
+
+            bet.setStatus(Bet.BetStatus.PENDING);
         
-        User actualUser = userOptional.get();
-        if (actualUser.getBalance().compareTo(bet.getAmount()) < 0) {
-            throw new IllegalArgumentException("Insufficient balance");
-        }
+            logger.info("Placing bet: user={}, competition={}, amount={}", 
+                    user.getUsername(), competition.getTitle(), bet.getAmount());
+            return betDao.save(bet);
+        });
+    }
 
+    private Competition findOpenCompetition(Bet bet) {
         Optional<Competition> competitionOptional = competitionService.findById(bet.getCompetition().getId());
         if (competitionOptional.isEmpty()) {
             throw new IllegalArgumentException("Competition not found");
@@ -88,49 +153,69 @@ public class BetServiceImpl implements BetService {
         if (competition.getStatus() != Competition.CompetitionStatus.SCHEDULED) {
             throw new IllegalArgumentException("Competition is not available for betting");
         }
+        return competition;
+    }
 
-        BigDecimal newBalance = actualUser.getBalance().subtract(bet.getAmount());
-        actualUser.setBalance(newBalance);
-        userService.updateUser(actualUser);
+    private void rejectDebit(User user) {
+        if (userService.findById(user.getId()).isEmpty()) {
+            throw new IllegalArgumentException("User not found");
+        }
+        throw new IllegalArgumentException("Insufficient balance");
+    }
 
-        bet.setStatus(Bet.BetStatus.PENDING);
-        bet.setUser(actualUser);
-        
-        logger.info("Placing bet: user={}, competition={}, amount={}", 
-                actualUser.getUsername(), competition.getTitle(), bet.getAmount());
-        return betDao.save(bet);
+    private Bet awaitPlacement(Bet bet, CompletableFuture<Bet> placement) {
+        try {
+            return placement.get(placementQueue.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Error placing bet", e.getCause());
+        } catch (TimeoutException e) {
+            if (placementQueue.withdraw(bet)) {
+                throw new PlacementTimeoutException("Bet could not be placed in time, please try again");
+            }
+            throw new PlacementTimeoutException("Bet is still being processed, check your bets before trying again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while placing bet", e);
+        }
     }
 
     @Override
     public boolean cancelBet(Integer betId) {
-        Optional<Bet> betOptional = betDao.findById(betId);
-        if (betOptional.isEmpty()) {
-            return false;
-        }
+        return TransactionManager.inTransaction(() -> {
+            Optional<Bet> betOptional = betDao.findById(betId);
+            if (betOptional.isEmpty()) {
+                return false;
+            }
         
-        Bet bet = betOptional.get();
-        if (bet.getStatus() != Bet.BetStatus.PENDING) {
-            logger.warn("Cannot cancel bet {} with status {}", betId, bet.getStatus());
-            return false;
-        }
+            Bet bet = betOptional.get();
+            if (bet.getStatus() != Bet.BetStatus.PENDING) {
+                logger.warn("Cannot cancel bet {} with status {}", betId, bet.getStatus());
+                return false;
+            }
 
-        Competition competition = bet.getCompetition();
-        if (competition.getStatus() != Competition.CompetitionStatus.SCHEDULED) {
-            logger.warn("Cannot cancel bet {} - competition already started/finished", betId);
-            return false;
-        }
+            Competition competition = bet.getCompetition();
+            if (competition.getStatus() != Competition.CompetitionStatus.SCHEDULED) {
+                logger.warn("Cannot cancel bet {} - competition already started/finished", betId);
+                return false;
+            }
 
-        User user = bet.getUser();
-        BigDecimal newBalance = user.getBalance().add(bet.getAmount());
-        user.setBalance(newBalance);
-        userService.updateUser(user);
+            if (!betDao.updateStatus(betId, Bet.BetStatus.PENDING, Bet.BetStatus.CANCELLED)) {
+                logger.warn("Bet {} is no longer pending", betId);
+                return false;
+            }
 
-        bet.setStatus(Bet.BetStatus.CANCELLED);
-        boolean updated = betDao.update(bet);
+            User user = bet.getUser();
+            if (!userService.creditBalance(user.getId(), bet.getAmount())) {
+                throw new IllegalStateException("Error refunding user " + user.getId());
+            }
         
-        logger.info("Bet {} cancelled, amount {} returned to user {}", 
-                betId, bet.getAmount(), user.getUsername());
-        return updated;
+            logger.info("Bet {} cancelled, amount {} returned to user {}", 
+                    betId, bet.getAmount(), user.getUsername());
+            return true;
+        });
     }
 
     @Override
@@ -147,62 +232,74 @@ public class BetServiceImpl implements BetService {
             return 0;
         }
         
-        List<Bet> bets = betDao.findByCompetitionId(competitionId);
-        int processedCount = 0;
+        if (partitionedSettlement != null && !TransactionManager.isActive()) {
+            return settleInParallel(competition);
+        }
         
-        for (Bet bet : bets) {
-            if (bet.getStatus() == Bet.BetStatus.PENDING) {
-                boolean won = checkBetWin(bet, competition);
-                bet.setStatus(won ? Bet.BetStatus.WON : Bet.BetStatus.LOST);
-                
-                if (won) {
-
-                    BigDecimal winAmount = bet.getAmount().multiply(bet.getBetType().getMultiplier());
-                    bet.setWinAmount(winAmount);
-
-                    User user = bet.getUser();
-                    BigDecimal newBalance = user.getBalance().add(winAmount);
-                    user.setBalance(newBalance);
-                    userService.updateUser(user);
-                    
-                    logger.info("Bet {} won, user {} receives {}", bet.getId(), user.getUsername(), winAmount);
-                }
-                
-                betDao.update(bet);
-                processedCount++;
+        if (!rowSettlement) {
+            int settled = betDao.settlePendingBets(competitionId);
+            if (settled > 0) {
+                userCache.invalidateAll();
             }
+            return settled;
         }
         
+        Outcome outcome = Outcome.compile(competition);
+        OddsSnapshot odds = bookmakerDao.findOdds(competitionId);
+        int processedCount = TransactionManager.inTransaction(() -> {
+            int settled = 0;
+            try (Stream<Bet> bets = betDao.streamByCompetitionId(competitionId)) {
+                Iterator<Bet> iterator = bets.iterator();
+                while (iterator.hasNext()) {
+                    Bet bet = iterator.next();
+                    if (bet.getStatus() == Bet.BetStatus.PENDING) {
+                        settleBet(bet, outcome, odds);
+                        settled++;
+                    }
+                }
+            }
+            return settled;
+        });
+        
         logger.info("Processed {} bets for competition {}", processedCount, competitionId);
         return processedCount;
     }
 
-    
-    private boolean checkBetWin(Bet bet, Competition competition) {
-        String betTypeName = bet.getBetType().getName();
-        String predictedValue = bet.getPredictedValue();
-        String result = competition.getResult();
-        Integer score1 = competition.getScore1();
-        Integer score2 = competition.getScore2();
+    private int settleInParallel(Competition competition) {
+        int competitionId = competition.getId();
+        Outcome outcome = Outcome.compile(competition);
+        OddsSnapshot odds = bookmakerDao.findOdds(competitionId);
+        int chunkSize = partitionedSettlement.getChunkSize();
+        int settled = 0;
+        int lastBetId = 0;
+        List<Bet> chunk;
+        while (!(chunk = betDao.findPendingChunk(competitionId, lastBetId, chunkSize)).isEmpty()) {
+            settled += partitionedSettlement.settle(chunk, bet -> betEvaluator.evaluate(bet, outcome, odds));
+            lastBetId = chunk.get(chunk.size() - 1).getId();
+        }
+        if (settled > 0) {
+            userCache.invalidateAll();
+        }
+        logger.info("Settled {} bets for competition {} on {} threads",
+                settled, competitionId, partitionedSettlement.getParallelism());
+        return settled;
+    }
+
+    private void settleBet(Bet bet, Outcome outcome, OddsSnapshot odds) {
+        betEvaluator.evaluate(bet, outcome, odds);
         
-        if (score1 == null || score2 == null) {
-            return false;
+        if (bet.getStatus() == Bet.BetStatus.WON) {
+            BigDecimal winAmount = bet.getWinAmount();
+            User user = bet.getUser();
+            if (!userService.creditBalance(user.getId(), winAmount)) {
+                throw new IllegalStateException("Error crediting user " + user.getId());
+            }
+            
+            logger.info("Bet {} won, user {} receives {}", bet.getId(), user.getUsername(), winAmount);
         }
         
-        switch (betTypeName) {
-            case "WIN":
-                return (result.equals("WIN_TEAM1") && predictedValue.equals("TEAM1")) ||
-                       (result.equals("WIN_TEAM2") && predictedValue.equals("TEAM2"));
-            case "DRAW":
-                return result.equals("DRAW") && predictedValue.equals("DRAW");
-            case "LOSS":
-                return (result.equals("WIN_TEAM2") && predictedValue.equals("TEAM1")) ||
-                       (result.equals("WIN_TEAM1") && predictedValue.equals("TEAM2"));
-            case "EXACT_SCORE":
-                String expectedScore = score1 + ":" + score2;
-                return expectedScore.equals(predictedValue);
-            default:
-                return false;
+        if (!betDao.update(bet)) {
+            throw new IllegalStateException("Error updating bet " + bet.getId());
         }
     }
 
@@ -1,9 +1,14 @@
 package com.totalizator.service.impl;
 
 import com.totalizator.dao.CompetitionDao;
+import com.totalizator.dao.Page;
+import com.totalizator.dao.SettlementJobDao;
+import com.totalizator.event.EventBus;
 import com.totalizator.model.Competition;
 import com.totalizator.service.CompetitionService;
+import com.totalizator.service.cache.CompetitionCache;
 import com.totalizator.service.factory.DaoFactory;
+import com.totalizator.util.TransactionManager;
 import com.totalizator.util.ValidationUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -18,11 +23,17 @@ import java.util.Random;
 public class CompetitionServiceImpl implements CompetitionService {
     private static final Logger logger = LogManager.getLogger();
     private final CompetitionDao competitionDao;
+    private final SettlementJobDao settlementJobDao;
+    private final CompetitionCache cache;
+    private final EventBus eventBus;
     private final Random random = new Random();
 
     
-    public CompetitionServiceImpl() {
+    public CompetitionServiceImpl(CompetitionCache cache) {
         this.competitionDao = DaoFactory.getInstance().getCompetitionDao();
+        this.settlementJobDao = DaoFactory.getInstance().getSettlementJobDao();
+        this.cache = cache;
+        this.eventBus = EventBus.getInstance();
     }
 
     @Override
@@ -30,12 +41,12 @@ public class CompetitionServiceImpl implements CompetitionService {
         if (!ValidationUtil.isValidId(id)) {
             return Optional.empty();
         }
-        return competitionDao.findById(id);
+        return cache.getById(id, () -> competitionDao.findById(id));
     }
 
     @Override
     public List<Competition> findAll() {
-        return competitionDao.findAll();
+        return cache.getList("all", competitionDao::findAll);
     }
 
     @Override
@@ -43,14 +54,37 @@ public class CompetitionServiceImpl implements CompetitionService {
         if (StringUtils.isBlank(status)) {
             return findAll();
         }
-        return competitionDao.findByStatus(status);
+        return cache.getList("status:" + status, () -> competitionDao.findByStatus(status));
+    }
+
+    @Override
+    public Page<Competition> findPage(String cursor, int limit) {
+        if (cursor == null) {
+            return cache.getPage("page:" + limit, () -> competitionDao.findPage(null, limit));
+        }
+        return competitionDao.findPage(cursor, limit);
+    }
+
+    @Override
+    public Page<Competition> findPageByStatus(String status, String cursor, int limit) {
+        if (StringUtils.isBlank(status)) {
+            return findPage(cursor, limit);
+        }
+        if (cursor == null) {
+            return cache.getPage("page:" + status + ":" + limit,
+                    () -> competitionDao.findPageByStatus(status, null, limit));
+        }
+        return competitionDao.findPageByStatus(status, cursor, limit);
     }
 
     @Override
     public Competition createCompetition(Competition competition) {
         validateCompetition(competition);
         logger.info("Creating competition: {}", competition.getTitle());
-        return competitionDao.save(competition);
+        Competition saved = competitionDao.save(competition);
+        cache.invalidate(saved.getId());
+        eventBus.publishCompetition(saved);
+        return saved;
     }
 
     @Override
@@ -59,7 +93,12 @@ public class CompetitionServiceImpl implements CompetitionService {
             return false;
         }
         validateCompetition(competition);
-        return competitionDao.update(competition);
+        boolean updated = competitionDao.update(competition);
+        cache.invalidate(competition.getId());
+        if (updated) {
+            eventBus.publishCompetition(competition);
+        }
+        return updated;
     }
 
     @Override
@@ -68,7 +107,9 @@ public class CompetitionServiceImpl implements CompetitionService {
             return false;
         }
         logger.info("Deleting competition with id: {}", id);
-        return competitionDao.deleteById(id);
+        boolean deleted = competitionDao.deleteById(id);
+        cache.invalidate(id);
+        return deleted;
     }
 
     @Override
@@ -99,7 +140,18 @@ public class CompetitionServiceImpl implements CompetitionService {
         
         logger.info("Generated random result for competition {}: {}-{}", 
                 competitionId, score1, score2);
-        return competitionDao.update(competition);
+        boolean updated = TransactionManager.inTransaction(() -> {
+            if (!competitionDao.update(competition)) {
+                return false;
+            }
+            settlementJobDao.enqueue(competitionId);
+            return true;
+        });
+        cache.invalidate(competitionId);
+        if (updated) {
+            eventBus.publishCompetition(competition);
+        }
+        return updated;
     }
 
     
@@ -0,0 +1,216 @@
+package com.totalizator.service.impl;
+
+import com.totalizator.dao.BetDao;
+import com.totalizator.dao.BookmakerDao;
+import com.totalizator.dao.SettlementJobDao;
+import com.totalizator.event.CompetitionEvent;
+import com.totalizator.event.EventBus;
+import com.totalizator.event.EventListener;
+import com.totalizator.model.Bet;
+import com.totalizator.model.Competition;
+import com.totalizator.model.OddsSnapshot;
+import com.totalizator.model.SettlementJob;
+import com.totalizator.service.CompetitionService;
+import com.totalizator.service.SettlementJobService;
+import com.totalizator.service.cache.UserCache;
+import com.totalizator.service.factory.DaoFactory;
+import com.totalizator.service.settlement.BetEvaluator;
+import com.totalizator.service.settlement.Outcome;
+import com.totalizator.util.TransactionManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class SettlementJobServiceImpl implements SettlementJobService {
+    private static final Logger logger = LogManager.getLogger();
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final SettlementJobDao settlementJobDao;
+    private final BetDao betDao;
+    private final BookmakerDao bookmakerDao;
+    private final CompetitionService competitionService;
+    private final UserCache userCache;
+    private final BetEvaluator betEvaluator = new BetEvaluator();
+    private final EventListener competitionListener = this::onEvent;
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final int workerCount;
+    private final int chunkSize;
+    private final long pollMillis;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final long maxRetryBackoffSeconds;
+    private volatile ScheduledExecutorService workers;
+
+
+    public SettlementJobServiceImpl(CompetitionService competitionService, UserCache userCache,
+                                    int workerCount, int chunkSize, long pollMillis,
+                                    int leaseSeconds, int maxAttempts,
+                                    long retryBackoffSeconds, long maxRetryBackoffSeconds) {
+        DaoFactory daoFactory = DaoFactory.getInstance();
+        this.settlementJobDao = daoFactory.getSettlementJobDao();
+        this.betDao = daoFactory.getBetDao();
+        this.bookmakerDao = daoFactory.getBookmakerDao();
+        this.competitionService = competitionService;
+        this.userCache = userCache;
+        this.workerCount = workerCount;
+        this.chunkSize = chunkSize;
+        this.pollMillis = pollMillis;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.maxRetryBackoffSeconds = maxRetryBackoffSeconds;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (workers != null) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newScheduledThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "settlement-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.scheduleWithFixedDelay(this::drain, i * pollMillis / workerCount, pollMillis, TimeUnit.MILLISECONDS);
+        }
+        EventBus.getInstance().subscribe(competitionListener);
+        logger.info("Settlement workers started: {} threads, chunks of {} bets", workerCount, chunkSize);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        ScheduledExecutorService current = workers;
+        if (current == null) {
+            return;
+        }
+        workers = null;
+        EventBus.getInstance().unsubscribe(competitionListener);
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Settlement workers stopped");
+    }
+
+    @Override
+    public void wakeUp() {
+        ScheduledExecutorService current = workers;
+        if (current != null && wakeUpQueued.compareAndSet(false, true)) {
+            current.execute(() -> {
+                wakeUpQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    @Override
+    public List<SettlementJob> findRecentJobs(int limit) {
+        return settlementJobDao.findRecent(limit);
+    }
+
+    private void onEvent(CompetitionEvent event) {
+        if (event.getType() == CompetitionEvent.Type.COMPETITION) {
+            wakeUp();
+        }
+    }
+
+    private void drain() {
+        try {
+            int lastJobId = 0;
+            Optional<SettlementJob> job;
+            while (isRunning() && (job = settlementJobDao.claimNext(lastJobId, leaseSeconds)).isPresent()) {
+                lastJobId = job.get().getId();
+                runJob(job.get());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error polling settlement jobs", e);
+        }
+    }
+
+    private void runJob(SettlementJob job) {
+        logger.info("Settling competition {} from bet {} ({}/{} done)",
+                job.getCompetitionId(), job.getLastBetId(), job.getProcessedBets(), job.getTotalBets());
+        try {
+            Optional<Competition> competition = competitionService.findById(job.getCompetitionId());
+            if (competition.isEmpty() || competition.get().getStatus() != Competition.CompetitionStatus.FINISHED) {
+                throw new IllegalStateException("Competition " + job.getCompetitionId() + " is not finished");
+            }
+            Outcome outcome = Outcome.compile(competition.get());
+            if (outcome == null) {
+                throw new IllegalStateException("Competition " + job.getCompetitionId() + " has no final score");
+            }
+            OddsSnapshot odds = bookmakerDao.findOdds(job.getCompetitionId());
+
+            int lastBetId = job.getLastBetId();
+            while (isRunning()) {
+                List<Bet> chunk = betDao.findPendingChunk(job.getCompetitionId(), lastBetId, chunkSize);
+                if (chunk.isEmpty()) {
+                    settlementJobDao.complete(job.getId());
+                    logger.info("Settlement of competition {} finished", job.getCompetitionId());
+                    return;
+                }
+                for (Bet bet : chunk) {
+                    betEvaluator.evaluate(bet, outcome, odds);
+                }
+                lastBetId = settleChunk(job, lastBetId, chunk);
+            }
+        } catch (LeaseLostException e) {
+            logger.warn(e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Settlement job {} failed", job.getId(), e);
+            settlementJobDao.fail(job.getId(), e.getMessage(), maxAttempts, retryDelaySeconds(job.getAttempts()));
+        }
+    }
+
+    private int settleChunk(SettlementJob job, int previousLastBetId, List<Bet> chunk) {
+        int lastBetId = chunk.get(chunk.size() - 1).getId();
+        Set<Integer> winners = new LinkedHashSet<>();
+        for (Bet bet : chunk) {
+            if (bet.getStatus() == Bet.BetStatus.WON) {
+                winners.add(bet.getUser().getId());
+            }
+        }
+        TransactionManager.inTransaction(() -> {
+            int settled = betDao.settleBatch(chunk);
+            if (!settlementJobDao.checkpoint(job.getId(), previousLastBetId, lastBetId, settled)) {
+                throw new LeaseLostException("Settlement job " + job.getId() + " was taken over by another worker");
+            }
+            TransactionManager.afterCommit(() -> winners.forEach(userCache::evict));
+            return settled;
+        });
+        return lastBetId;
+    }
+
+    private long retryDelaySeconds(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(maxRetryBackoffSeconds, retryBackoffSeconds << doublings);
+    }
+
+    private boolean isRunning() {
+        return workers != null && !Thread.currentThread().isInterrupted();
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+        private LeaseLostException(String message) {
+            super(message);
+        }
+    }
+}
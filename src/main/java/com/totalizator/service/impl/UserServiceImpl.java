@@ -1,10 +1,13 @@
 package com.totalizator.service.impl;
 
+import com.totalizator.dao.Page;
 import com.totalizator.dao.UserDao;
 import com.totalizator.model.Role;
 import com.totalizator.model.User;
 import com.totalizator.service.UserService;
+import com.totalizator.service.cache.UserCache;
 import com.totalizator.service.factory.DaoFactory;
+import com.totalizator.util.TransactionManager;
 import com.totalizator.util.ValidationUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -22,10 +25,12 @@ public class UserServiceImpl implements UserService {
     private static final Logger logger = LogManager.getLogger();
     private static final String EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@(.+)$";
     private final UserDao userDao;
+    private final UserCache userCache;
 
     
-    public UserServiceImpl() {
+    public UserServiceImpl(UserCache userCache) {
         this.userDao = DaoFactory.getInstance().getUserDao();
+        this.userCache = userCache;
     }
 
     @Override
@@ -33,7 +38,10 @@ public class UserServiceImpl implements UserService {
         if (!ValidationUtil.isValidId(id)) {
             return Optional.empty();
         }
-        return userDao.findById(id);
+        if (TransactionManager.isActive()) {
+            return userDao.findById(id);
+        }
+        return userCache.get(id, () -> userDao.findById(id));
     }
 
     @Override
@@ -57,6 +65,11 @@ public class UserServiceImpl implements UserService {
         return userDao.findAll();
     }
 
+    @Override
+    public Page<User> findPage(String cursor, int limit) {
+        return userDao.findPage(cursor, limit);
+    }
+
     @Override
     public User register(User user) {
         validateUser(user);
@@ -125,7 +138,29 @@ public class UserServiceImpl implements UserService {
             existingUser.ifPresent(value -> user.setPassword(value.getPassword()));
         }
         
-        return userDao.update(user);
+        boolean updated = userDao.update(user);
+        evict(user.getId());
+        return updated;
+    }
+
+    @Override
+    public boolean debitBalance(Integer userId, BigDecimal amount) {
+        if (!ValidationUtil.isValidId(userId) || amount == null || amount.signum() <= 0) {
+            return false;
+        }
+        boolean debited = userDao.debitBalance(userId, amount);
+        evict(userId);
+        return debited;
+    }
+
+    @Override
+    public boolean creditBalance(Integer userId, BigDecimal amount) {
+        if (!ValidationUtil.isValidId(userId) || amount == null || amount.signum() <= 0) {
+            return false;
+        }
+        boolean credited = userDao.creditBalance(userId, amount);
+        evict(userId);
+        return credited;
     }
 
     @Override
@@ -133,7 +168,14 @@ public class UserServiceImpl implements UserService {
         if (!ValidationUtil.isValidId(id)) {
             return false;
         }
-        return userDao.deleteById(id);
+        boolean deleted = userDao.deleteById(id);
+        evict(id);
+        return deleted;
+    }
+
+    private void evict(Integer id) {
+        userCache.evict(id);
+        TransactionManager.afterCommit(() -> userCache.evict(id));
     }
 
     
@@ -0,0 +1,178 @@
+package com.totalizator.service.placement;
+
+import com.totalizator.dao.BetDao;
+import com.totalizator.model.Bet;
+import com.totalizator.service.cache.UserCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public class BetPlacementQueue {
+    private static final Logger logger = LogManager.getLogger();
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final BetDao betDao;
+    private final UserCache userCache;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<PendingBet> queue;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder placedBets = new LongAdder();
+    private volatile Thread writer;
+    private volatile boolean running;
+
+
+    public BetPlacementQueue(BetDao betDao, UserCache userCache, int maxBatchSize, long maxWaitMillis,
+                             int capacity, long timeoutMillis) {
+        this.betDao = betDao;
+        this.userCache = userCache;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "bet-placement-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Bet placement writer started: up to {} bets or {} ms per batch",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+    }
+
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread current = writer;
+        current.interrupt();
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingBet> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (PendingBet pending : abandoned) {
+            pending.future.completeExceptionally(new IllegalStateException("Bet placement is shutting down"));
+        }
+        logger.info("Bet placement writer stopped after {} batches, {} bets", batches.sum(), placedBets.sum());
+    }
+
+    public CompletableFuture<Bet> submit(Bet bet) {
+        if (!running) {
+            return null;
+        }
+        PendingBet pending = new PendingBet(bet);
+        if (!queue.offer(pending)) {
+            return null;
+        }
+        if (!running && queue.remove(pending)) {
+            return null;
+        }
+        return pending.future;
+    }
+
+    public boolean withdraw(Bet bet) {
+        return queue.removeIf(pending -> pending.bet == bet);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getPlacedBets() {
+        return placedBets.sum();
+    }
+
+    private void run() {
+        List<PendingBet> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) {
+                    break;
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingBet> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingBet next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingBet> batch) {
+        List<Bet> bets = new ArrayList<>(batch.size());
+        for (PendingBet pending : batch) {
+            bets.add(pending.bet);
+        }
+        boolean[] placed;
+        try {
+            placed = betDao.placeBatch(bets);
+        } catch (RuntimeException e) {
+            logger.error("Error placing a batch of {} bets", bets.size(), e);
+            for (PendingBet pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+            return;
+        }
+        batches.increment();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingBet pending = batch.get(i);
+            if (placed[i]) {
+                placedBets.increment();
+                userCache.evict(pending.bet.getUser().getId());
+                pending.future.complete(pending.bet);
+            } else {
+                pending.future.complete(null);
+            }
+        }
+    }
+
+    private static final class PendingBet {
+        private final Bet bet;
+        private final CompletableFuture<Bet> future = new CompletableFuture<>();
+
+        private PendingBet(Bet bet) {
+            this.bet = bet;
+        }
+    }
+}
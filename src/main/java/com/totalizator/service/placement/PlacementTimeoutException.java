@@ -0,0 +1,9 @@
+package com.totalizator.service.placement;
+
+
+public class PlacementTimeoutException extends RuntimeException {
+
+    public PlacementTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.model.Bet;
+import com.totalizator.model.OddsSnapshot;
+
+import java.math.RoundingMode;
+
+
+public class BetEvaluator {
+    private static final int MONEY_SCALE = 2;
+
+    private final BetRuleRegistry betRules = new BetRuleRegistry();
+
+    public void evaluate(Bet bet, Outcome outcome, OddsSnapshot odds) {
+        BetRule rule = betRules.getRule(bet.getBetType());
+        boolean won = rule != null && rule.isWinning(bet.getPredictedValue(), outcome);
+        bet.setStatus(won ? Bet.BetStatus.WON : Bet.BetStatus.LOST);
+        if (won) {
+            bet.setWinAmount(bet.getAmount().multiply(odds.getMultiplier(bet.getBetType()))
+                    .setScale(MONEY_SCALE, RoundingMode.HALF_UP));
+        }
+    }
+}
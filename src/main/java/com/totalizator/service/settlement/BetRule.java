@@ -0,0 +1,143 @@
+package com.totalizator.service.settlement;
+
+
+public enum BetRule {
+    WIN {
+        @Override
+        int parse(String predictedValue) {
+            return parseSide(predictedValue);
+        }
+
+        @Override
+        boolean wins(int prediction, Outcome outcome) {
+            return prediction != Outcome.NONE && prediction == outcome.getWinner();
+        }
+    },
+    DRAW {
+        @Override
+        int parse(String predictedValue) {
+            return "DRAW".equals(predictedValue) ? Outcome.DRAW : INVALID;
+        }
+
+        @Override
+        boolean wins(int prediction, Outcome outcome) {
+            return prediction == Outcome.DRAW && outcome.getWinner() == Outcome.DRAW;
+        }
+    },
+    LOSS {
+        @Override
+        int parse(String predictedValue) {
+            return parseSide(predictedValue);
+        }
+
+        @Override
+        boolean wins(int prediction, Outcome outcome) {
+            return (prediction == Outcome.TEAM1 && outcome.getWinner() == Outcome.TEAM2)
+                    || (prediction == Outcome.TEAM2 && outcome.getWinner() == Outcome.TEAM1);
+        }
+    },
+    EXACT_SCORE {
+        @Override
+        int parse(String predictedValue) {
+            int separator = predictedValue.indexOf(':');
+            if (separator < 0) {
+                return INVALID;
+            }
+            int score1 = parseCanonical(predictedValue, 0, separator);
+            int score2 = parseCanonical(predictedValue, separator + 1, predictedValue.length());
+            return score1 < 0 || score2 < 0 ? INVALID : score1 << 16 | score2;
+        }
+
+        @Override
+        boolean wins(int prediction, Outcome outcome) {
+            return prediction != INVALID
+                    && prediction >>> 16 == outcome.getScore1() && (prediction & 0xFFFF) == outcome.getScore2();
+        }
+    },
+    TOTAL_OVER {
+        @Override
+        int parse(String predictedValue) {
+            return parseTenths(predictedValue);
+        }
+
+        @Override
+        boolean wins(int prediction, Outcome outcome) {
+            return prediction != INVALID && outcome.getTotal() * 10 > prediction;
+        }
+    },
+    TOTAL_UNDER {
+        @Override
+        int parse(String predictedValue) {
+            return parseTenths(predictedValue);
+        }
+
+        @Override
+        boolean wins(int prediction, Outcome outcome) {
+            return prediction != INVALID && outcome.getTotal() * 10 < prediction;
+        }
+    };
+
+    static final int INVALID = -1;
+    private static final int MAX_SCORE = Short.MAX_VALUE;
+    private static final int MAX_TOTAL_DIGITS = 5;
+
+    abstract int parse(String predictedValue);
+
+    abstract boolean wins(int prediction, Outcome outcome);
+
+    public boolean isWinning(String predictedValue, Outcome outcome) {
+        if (predictedValue == null || outcome == null) {
+            return false;
+        }
+        return wins(parse(predictedValue), outcome);
+    }
+
+    private static int parseSide(String predictedValue) {
+        if ("TEAM1".equals(predictedValue)) {
+            return Outcome.TEAM1;
+        }
+        if ("TEAM2".equals(predictedValue)) {
+            return Outcome.TEAM2;
+        }
+        return INVALID;
+    }
+
+    private static int parseCanonical(String value, int from, int to) {
+        if (from >= to || to - from > 5 || (value.charAt(from) == '0' && to - from > 1)) {
+            return INVALID;
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result <= MAX_SCORE ? result : INVALID;
+    }
+
+    private static int parseTenths(String value) {
+        int length = value.length();
+        int point = value.indexOf('.');
+        int integerEnd = point < 0 ? length : point;
+        if (integerEnd == 0 || integerEnd > MAX_TOTAL_DIGITS) {
+            return INVALID;
+        }
+        if (point >= 0 && point != length - 2) {
+            return INVALID;
+        }
+        int tenths = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == point) {
+                continue;
+            }
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            tenths = tenths * 10 + (c - '0');
+        }
+        return point < 0 ? tenths * 10 : tenths;
+    }
+}
@@ -0,0 +1,54 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.model.BetType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+
+
+public class BetRuleRegistry {
+    private static final Logger logger = LogManager.getLogger();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile BetRule[] rulesById = new BetRule[INITIAL_CAPACITY];
+
+    public BetRule getRule(BetType betType) {
+        int id = betType.getId();
+        BetRule[] rules = rulesById;
+        if (id >= 0 && id < rules.length && rules[id] != null) {
+            return rules[id];
+        }
+        return register(betType);
+    }
+
+    private synchronized BetRule register(BetType betType) {
+        BetRule rule = findByName(betType.getName());
+        if (rule == null) {
+            logger.warn("No settlement rule for bet type {} ({})", betType.getId(), betType.getName());
+            return null;
+        }
+        int id = betType.getId();
+        if (id < 0) {
+            return rule;
+        }
+        BetRule[] rules = rulesById;
+        if (id >= rules.length) {
+            rules = Arrays.copyOf(rules, Math.max(id + 1, rules.length * 2));
+        } else {
+            rules = rules.clone();
+        }
+        rules[id] = rule;
+        rulesById = rules;
+        return rule;
+    }
+
+    private static BetRule findByName(String name) {
+        for (BetRule rule : BetRule.values()) {
+            if (rule.name().equals(name)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.model.Competition;
+
+
+public final class Outcome {
+    static final int NONE = 0;
+    static final int TEAM1 = 1;
+    static final int TEAM2 = 2;
+    static final int DRAW = 3;
+
+    private final int score1;
+    private final int score2;
+    private final int winner;
+
+    private Outcome(int score1, int score2, int winner) {
+        this.score1 = score1;
+        this.score2 = score2;
+        this.winner = winner;
+    }
+
+    public static Outcome compile(Competition competition) {
+        if (competition.getScore1() == null || competition.getScore2() == null) {
+            return null;
+        }
+        String result = competition.getResult();
+        int winner = NONE;
+        if ("WIN_TEAM1".equals(result)) {
+            winner = TEAM1;
+        } else if ("WIN_TEAM2".equals(result)) {
+            winner = TEAM2;
+        } else if ("DRAW".equals(result)) {
+            winner = DRAW;
+        }
+        return new Outcome(competition.getScore1(), competition.getScore2(), winner);
+    }
+
+    int getScore1() {
+        return score1;
+    }
+
+    int getScore2() {
+        return score2;
+    }
+
+    int getTotal() {
+        return score1 + score2;
+    }
+
+    int getWinner() {
+        return winner;
+    }
+}
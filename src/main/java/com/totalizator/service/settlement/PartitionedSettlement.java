@@ -0,0 +1,98 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.dao.BetDao;
+import com.totalizator.model.Bet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+
+public class PartitionedSettlement {
+    private final BetDao betDao;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    public PartitionedSettlement(BetDao betDao, int parallelism, int batchSize) {
+        this.betDao = betDao;
+        this.pool = new ForkJoinPool(parallelism);
+        this.batchSize = batchSize;
+    }
+
+    public int settle(List<Bet> pendingBets, Consumer<Bet> evaluator) {
+        List<List<Bet>> partitions = partitionByUser(pendingBets);
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        int[] offsets = new int[partitions.size() + 1];
+        for (int i = 0; i < partitions.size(); i++) {
+            offsets[i + 1] = offsets[i] + partitions.get(i).size();
+        }
+        return pool.invoke(new SettlementTask(partitions, offsets, 0, partitions.size(), evaluator));
+    }
+
+    public int getChunkSize() {
+        return batchSize * pool.getParallelism();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static List<List<Bet>> partitionByUser(List<Bet> bets) {
+        Map<Integer, List<Bet>> byUser = new LinkedHashMap<>();
+        for (Bet bet : bets) {
+            byUser.computeIfAbsent(bet.getUser().getId(), userId -> new ArrayList<>()).add(bet);
+        }
+        return new ArrayList<>(byUser.values());
+    }
+
+    private final class SettlementTask extends RecursiveTask<Integer> {
+        private final List<List<Bet>> partitions;
+        private final int[] offsets;
+        private final int from;
+        private final int to;
+        private final Consumer<Bet> evaluator;
+
+        private SettlementTask(List<List<Bet>> partitions, int[] offsets, int from, int to,
+                               Consumer<Bet> evaluator) {
+            this.partitions = partitions;
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+            this.evaluator = evaluator;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from == 1 || offsets[to] - offsets[from] <= batchSize) {
+                return settleBatch();
+            }
+            int middle = (from + to) >>> 1;
+            SettlementTask left = new SettlementTask(partitions, offsets, from, middle, evaluator);
+            SettlementTask right = new SettlementTask(partitions, offsets, middle, to, evaluator);
+            left.fork();
+            int settled = right.compute();
+            return settled + left.join();
+        }
+
+        private int settleBatch() {
+            List<Bet> batch = new ArrayList<>(offsets[to] - offsets[from]);
+            for (int i = from; i < to; i++) {
+                for (Bet bet : partitions.get(i)) {
+                    evaluator.accept(bet);
+                    batch.add(bet);
+                }
+            }
+            return betDao.settleBatch(batch);
+        }
+    }
+}
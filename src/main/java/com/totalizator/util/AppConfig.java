@@ -0,0 +1,72 @@
+package com.totalizator.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+
+public class AppConfig {
+    private static final Logger logger = LogManager.getLogger(AppConfig.class);
+    private static final String PROPERTIES_NAME = "application.properties";
+    private static final String PROPERTIES_PATH = "src/main/resources/application.properties";
+    private static final AppConfig instance = new AppConfig();
+
+    private final Properties properties = new Properties();
+
+    private AppConfig() {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(PROPERTIES_NAME)) {
+            if (input != null) {
+                properties.load(input);
+            } else {
+                Path pathProperties = Paths.get(PROPERTIES_PATH);
+                if (Files.exists(pathProperties)) {
+                    try (InputStream fileInput = new FileInputStream(pathProperties.toFile())) {
+                        properties.load(fileInput);
+                    }
+                } else {
+                    logger.warn("{} not found, using defaults", PROPERTIES_NAME);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Error loading {}, using defaults", PROPERTIES_NAME, e);
+        }
+    }
+
+    public static AppConfig getInstance() {
+        return instance;
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
@@ -0,0 +1,55 @@
+package com.totalizator.util;
+
+import com.totalizator.model.UserPrincipal;
+import com.totalizator.service.factory.ServiceFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Locale;
+
+
+public interface AuthStore {
+    String PRINCIPAL_ATTRIBUTE = UserPrincipal.SESSION_ATTRIBUTE;
+    String LOCALE_ATTRIBUTE = "locale";
+
+    void load(HttpServletRequest request, HttpServletResponse response);
+
+    void signIn(HttpServletRequest request, HttpServletResponse response, UserPrincipal principal);
+
+    void signOut(HttpServletRequest request, HttpServletResponse response);
+
+    void changeLocale(HttpServletRequest request, HttpServletResponse response, Locale locale);
+
+    static AuthStore getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    static UserPrincipal getPrincipal(HttpServletRequest request) {
+        Object principal = request.getAttribute(PRINCIPAL_ATTRIBUTE);
+        return principal instanceof UserPrincipal ? (UserPrincipal) principal : null;
+    }
+
+    static Locale getLocale(HttpServletRequest request) {
+        Object locale = request.getAttribute(LOCALE_ATTRIBUTE);
+        return locale instanceof Locale ? (Locale) locale : Locale.ENGLISH;
+    }
+
+    final class Holder {
+        private static final AuthStore INSTANCE = create(AppConfig.getInstance());
+
+        private Holder() {
+        }
+
+        private static AuthStore create(AppConfig config) {
+            String mode = config.getString("auth.mode", "token");
+            if ("session".equalsIgnoreCase(mode)) {
+                return new SessionAuthStore();
+            }
+            return new SignedTokenAuthStore(
+                    config.getString("auth.token.secret", null),
+                    config.getLong("auth.token.ttlSeconds", SignedTokenAuthStore.DEFAULT_TTL_SECONDS),
+                    config.getLong("auth.token.maxLifetimeSeconds", SignedTokenAuthStore.DEFAULT_MAX_LIFETIME_SECONDS),
+                    id -> ServiceFactory.getInstance().getUserService().findById(id).map(UserPrincipal::from));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.totalizator.util;
+
+import com.totalizator.model.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Locale;
+
+public final class ConditionalGet {
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private ConditionalGet() {
+    }
+
+    public static boolean isNotModified(HttpServletRequest request, HttpServletResponse response,
+                                        long version, long lastModifiedMillis) {
+        UserPrincipal user = AuthStore.getPrincipal(request);
+        String etag = buildETag(request, version, user);
+
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.setHeader("Vary", "Cookie");
+        if (user == null) {
+            response.setDateHeader("Last-Modified", lastModifiedMillis);
+        }
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            if (matches(ifNoneMatch, etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+            return false;
+        }
+
+        if (user == null) {
+            long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+            if (ifModifiedSince >= 0 && lastModifiedMillis / 1000 <= ifModifiedSince / 1000) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String buildETag(HttpServletRequest request, long version, UserPrincipal user) {
+        Locale locale = AuthStore.getLocale(request);
+        StringBuilder etag = new StringBuilder("W/\"")
+                .append(BOOT_ID).append('-')
+                .append(version).append('-')
+                .append(locale).append('-');
+        if (user == null) {
+            etag.append("anon");
+        } else {
+            etag.append('u').append(user.getId()).append('r').append(user.getRoleId());
+        }
+        return etag.append('"').toString();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
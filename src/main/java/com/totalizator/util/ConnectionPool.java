@@ -13,8 +13,14 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 
@@ -22,10 +28,35 @@ public class ConnectionPool {
     private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
     private static final ReentrantLock instanceLock = new ReentrantLock();
     private static final String PROPERTIES_PATH = "src/main/resources/db.properties";
-    private static final int CONNECTION_CAPACITY = 8;
-    private static ConnectionPool instance;
-    private final BlockingQueue<Connection> free = new LinkedBlockingQueue<>(CONNECTION_CAPACITY);
-    private final BlockingQueue<Connection> used = new LinkedBlockingQueue<>(CONNECTION_CAPACITY);
+    private static final int DEFAULT_MIN_SIZE = 2;
+    private static final int DEFAULT_MAX_SIZE = 32;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5_000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 300_000;
+    private static final long DEFAULT_EVICTION_INTERVAL_MILLIS = 30_000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    private static final long DEFAULT_VALIDATION_IDLE_MILLIS = 30_000;
+    private static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MAX_HANDOFF_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static volatile ConnectionPool instance;
+
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutNanos;
+    private final int statementCacheSize;
+    private final long validateAfterIdleNanos;
+    private final int validationTimeoutSeconds;
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final CopyOnWriteArrayList<PooledConnection> sharedList = new CopyOnWriteArrayList<>();
+    private final SynchronousQueue<PooledConnection> handoffQueue = new SynchronousQueue<>(true);
+    private final ThreadLocal<PooledConnection> lastReleased = new ThreadLocal<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
 
     static {
         try {
@@ -36,12 +67,58 @@ public class ConnectionPool {
         }
     }
 
-    
+
     private ConnectionPool() {
+        this(loadProperties());
+    }
+
+
+    ConnectionPool(Properties properties) {
+        dbUrl = properties.getProperty("db.url");
+        dbUser = properties.getProperty("db.user");
+        dbPassword = properties.getProperty("db.password");
+
+        if (dbUrl == null || dbUser == null || dbPassword == null) {
+            logger.error("Database properties are not set correctly. URL: {}, User: {}", dbUrl, dbUser);
+            throw new RuntimeException("Database properties are not configured");
+        }
+
+        maxSize = Math.max(1, getInt(properties, "db.pool.maxSize", DEFAULT_MAX_SIZE));
+        minSize = Math.min(maxSize, Math.max(0, getInt(properties, "db.pool.minSize", DEFAULT_MIN_SIZE)));
+        acquireTimeoutMillis = getLong(properties, "db.pool.acquireTimeoutMillis", DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+        idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+                getLong(properties, "db.pool.idleTimeoutMillis", DEFAULT_IDLE_TIMEOUT_MILLIS));
+        long evictionIntervalMillis = getLong(properties, "db.pool.evictionIntervalMillis",
+                DEFAULT_EVICTION_INTERVAL_MILLIS);
+        statementCacheSize = getInt(properties, "db.pool.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE);
+        validateAfterIdleNanos = TimeUnit.MILLISECONDS.toNanos(
+                getLong(properties, "db.pool.validationIdleMillis", DEFAULT_VALIDATION_IDLE_MILLIS));
+        validationTimeoutSeconds = getInt(properties, "db.pool.validationTimeoutSeconds",
+                DEFAULT_VALIDATION_TIMEOUT_SECONDS);
+
+        fillToMinimum();
+        logger.info("Connection pool initialized with {} connections (min={}, max={}, acquireTimeout={}ms)",
+                totalConnections.get(), minSize, maxSize, acquireTimeoutMillis);
+
+        if (sharedList.isEmpty()) {
+            logger.warn("Connection pool is empty! Check database connection settings.");
+        }
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+                evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    private static Properties loadProperties() {
         Properties properties = new Properties();
         logger.info("Properties created");
 
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("db.properties")) {
+        try (InputStream input = ConnectionPool.class.getClassLoader().getResourceAsStream("db.properties")) {
             if (input == null) {
 
                 Path pathProperties = Paths.get(PROPERTIES_PATH);
@@ -58,35 +135,9 @@ public class ConnectionPool {
             e.printStackTrace();
         }
 
-        String dbUrl = properties.getProperty("db.url");
-        String dbUser = properties.getProperty("db.user");
-        String dbPassword = properties.getProperty("db.password");
-        
-        if (dbUrl == null || dbUser == null || dbPassword == null) {
-            logger.error("Database properties are not set correctly. URL: {}, User: {}", dbUrl, dbUser);
-            throw new RuntimeException("Database properties are not configured");
-        }
-        
-        for (int i = 0; i < CONNECTION_CAPACITY; i++) {
-            Connection connection = null;
-            try {
-                connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-            } catch (SQLException e) {
-                logger.error("Failed to create connection {}", i, e);
-                e.printStackTrace();
-            }
-            if (connection != null) {
-                free.add(connection);
-            }
-        }
-        logger.info("Connection pool initialized with {} connections", free.size());
-        
-        if (free.isEmpty()) {
-            logger.warn("Connection pool is empty! Check database connection settings.");
-        }
+        return properties;
     }
 
-    
     public static ConnectionPool getInstance() {
         if (instance == null) {
             instanceLock.lock();
@@ -101,30 +152,246 @@ public class ConnectionPool {
         return instance;
     }
 
-    
+
     public Connection getConnection() {
-        Connection connection;
-        try {
-            connection = free.take();
-            used.put(connection);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while getting connection", e);
+        Connection bound = TransactionManager.getBoundConnection();
+        if (bound != null) {
+            return bound;
+        }
+
+        PooledConnection local = lastReleased.get();
+        if (local != null && local.compareAndSetState(PooledConnection.STATE_NOT_IN_USE,
+                PooledConnection.STATE_IN_USE)) {
+            if (local.isUsable(validateAfterIdleNanos, validationTimeoutSeconds)) {
+                return local.newHandle();
+            }
+            remove(local);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        PooledConnection pooled = borrowShared();
+        if (pooled == null) {
+            pooled = tryCreateConnection();
         }
-        return connection;
+        if (pooled == null) {
+            pooled = awaitHandoff(deadline);
+        }
+        return pooled.newHandle();
     }
 
-    
+
     public void releaseConnection(Connection connection) {
-        if (connection == null) {
+        if (connection != null && connection == TransactionManager.getBoundConnection()) {
+            return;
+        }
+        PooledConnection.Handle handle = PooledConnection.unwrap(connection);
+        if (handle == null || handle.getPooled().getPool() != this) {
+            if (connection != null) {
+                logger.warn("Attempt to release a connection that is not owned by the pool");
+            }
+            return;
+        }
+        PooledConnection pooled = handle.getPooled();
+        if (!handle.isCurrent()) {
+            logger.debug("Ignoring release of a connection handle that was already returned");
+            return;
+        }
+        if (!pooled.isOpen()) {
+            if (handle.release()) {
+                remove(pooled);
+            }
             return;
         }
+
+        pooled.touch();
+        if (!handle.release()) {
+            return;
+        }
+        for (int attempt = 0; waiters.get() > 0; attempt++) {
+            if (pooled.getState() != PooledConnection.STATE_NOT_IN_USE || handoffQueue.offer(pooled)) {
+                break;
+            }
+            if ((attempt & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+        lastReleased.set(pooled);
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        int idle = 0;
+        for (PooledConnection pooled : sharedList) {
+            if (pooled.getState() == PooledConnection.STATE_NOT_IN_USE) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    public int getCachedStatementCount() {
+        int count = 0;
+        for (PooledConnection pooled : sharedList) {
+            count += pooled.getCachedStatementCount();
+        }
+        return count;
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        for (PooledConnection pooled : sharedList) {
+            if (pooled.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_REMOVED)) {
+                remove(pooled);
+            }
+        }
+        logger.info("Connection pool shut down, {} connections still in use", totalConnections.get());
+    }
+
+    private PooledConnection borrowShared() {
+        for (PooledConnection pooled : sharedList) {
+            if (pooled.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_IN_USE)) {
+                if (pooled.isUsable(validateAfterIdleNanos, validationTimeoutSeconds)) {
+                    return pooled;
+                }
+                remove(pooled);
+            }
+        }
+        return null;
+    }
+
+    private PooledConnection awaitHandoff(long deadline) {
+        waiters.incrementAndGet();
         try {
-            used.remove(connection);
-            free.put(connection);
+            while (true) {
+                PooledConnection pooled = borrowShared();
+                if (pooled == null) {
+                    pooled = tryCreateConnection();
+                }
+                if (pooled != null) {
+                    return pooled;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ConnectionPoolException("Timed out after " + acquireTimeoutMillis
+                            + " ms waiting for a database connection (pool size " + totalConnections.get() + ")");
+                }
+                pooled = handoffQueue.poll(Math.min(remaining, MAX_HANDOFF_WAIT_NANOS), TimeUnit.NANOSECONDS);
+                if (pooled != null && pooled.compareAndSetState(PooledConnection.STATE_NOT_IN_USE,
+                        PooledConnection.STATE_IN_USE)) {
+                    if (pooled.isUsable(validateAfterIdleNanos, validationTimeoutSeconds)) {
+                        return pooled;
+                    }
+                    remove(pooled);
+                }
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while releasing connection", e);
+            throw new ConnectionPoolException("Interrupted while getting connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private PooledConnection tryCreateConnection() {
+        int current;
+        do {
+            current = totalConnections.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!totalConnections.compareAndSet(current, current + 1));
+
+        try {
+            Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+            PooledConnection pooled = new PooledConnection(this, connection, PooledConnection.STATE_IN_USE,
+                    statementCacheSize, statementCacheHits, statementCacheMisses);
+            sharedList.add(pooled);
+            return pooled;
+        } catch (SQLException e) {
+            totalConnections.decrementAndGet();
+            logger.error("Failed to open database connection", e);
+            throw new ConnectionPoolException("Failed to open database connection", e);
+        }
+    }
+
+    private void fillToMinimum() {
+        while (totalConnections.get() < minSize) {
+            try {
+                PooledConnection pooled = tryCreateConnection();
+                if (pooled == null) {
+                    return;
+                }
+                pooled.setState(PooledConnection.STATE_NOT_IN_USE);
+            } catch (ConnectionPoolException e) {
+                return;
+            }
+        }
+    }
+
+    private void evictIdleConnections() {
+        try {
+            long now = System.nanoTime();
+            int evicted = 0;
+            for (PooledConnection pooled : sharedList) {
+                if (totalConnections.get() <= minSize) {
+                    break;
+                }
+                if (now - pooled.getLastAccessNanos() >= idleTimeoutNanos
+                        && pooled.compareAndSetState(PooledConnection.STATE_NOT_IN_USE,
+                        PooledConnection.STATE_REMOVED)) {
+                    remove(pooled);
+                    evicted++;
+                }
+            }
+            fillToMinimum();
+            if (evicted > 0) {
+                logger.debug("Evicted {} idle connections, pool size is now {}", evicted, totalConnections.get());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error evicting idle connections", e);
+        }
+    }
+
+    private void remove(PooledConnection pooled) {
+        pooled.setState(PooledConnection.STATE_REMOVED);
+        if (sharedList.remove(pooled)) {
+            totalConnections.decrementAndGet();
+        }
+        try {
+            pooled.closePhysically();
+        } catch (SQLException e) {
+            logger.warn("Error closing database connection", e);
+        }
+    }
+
+    private static int getInt(Properties properties, String key, int defaultValue) {
+        return (int) getLong(properties, key, defaultValue);
+    }
+
+    private static long getLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+            return defaultValue;
         }
     }
 }
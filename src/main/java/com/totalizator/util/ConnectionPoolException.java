@@ -0,0 +1,13 @@
+package com.totalizator.util;
+
+
+public class ConnectionPoolException extends RuntimeException {
+
+    public ConnectionPoolException(String message) {
+        super(message);
+    }
+
+    public ConnectionPoolException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
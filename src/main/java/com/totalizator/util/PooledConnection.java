@@ -0,0 +1,208 @@
+package com.totalizator.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+final class PooledConnection {
+    static final int STATE_NOT_IN_USE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+
+    private static final int STATE_BITS = 8;
+    private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+    private static final Constructor<?> HANDLE_CONSTRUCTOR = handleConstructor();
+
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final AtomicLong stateAndGeneration;
+    private volatile Connection currentHandle;
+    private volatile long lastAccessNanos;
+
+    PooledConnection(ConnectionPool pool, Connection connection, int initialState,
+                     int statementCacheSize, LongAdder cacheHits, LongAdder cacheMisses) {
+        this.pool = pool;
+        this.connection = connection;
+        this.stateAndGeneration = new AtomicLong(pack(0, initialState));
+        this.lastAccessNanos = System.nanoTime();
+        this.statementCache = statementCacheSize > 0
+                ? new StatementCache(connection, () -> currentHandle, statementCacheSize, cacheHits, cacheMisses)
+                : null;
+    }
+
+    static Handle unwrap(Connection connection) {
+        if (connection != null && Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof Handle handle) {
+            return handle;
+        }
+        return null;
+    }
+
+    boolean compareAndSetState(int expected, int newState) {
+        while (true) {
+            long current = stateAndGeneration.get();
+            if (stateOf(current) != expected) {
+                return false;
+            }
+            long generation = generationOf(current) + (newState == STATE_IN_USE ? 1 : 0);
+            if (stateAndGeneration.compareAndSet(current, pack(generation, newState))) {
+                return true;
+            }
+        }
+    }
+
+    int getState() {
+        return stateOf(stateAndGeneration.get());
+    }
+
+    void setState(int newState) {
+        while (true) {
+            long current = stateAndGeneration.get();
+            long generation = generationOf(current) + (newState == STATE_IN_USE ? 1 : 0);
+            if (stateAndGeneration.compareAndSet(current, pack(generation, newState))) {
+                return;
+            }
+        }
+    }
+
+    Connection newHandle() {
+        Connection handle;
+        try {
+            handle = (Connection) HANDLE_CONSTRUCTOR.newInstance(new Handle(generationOf(stateAndGeneration.get())));
+        } catch (ReflectiveOperationException e) {
+            throw new ConnectionPoolException("Failed to create connection handle", e);
+        }
+        currentHandle = handle;
+        return handle;
+    }
+
+    ConnectionPool getPool() {
+        return pool;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    boolean isOpen() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    boolean isUsable(long validateAfterIdleNanos, int validationTimeoutSeconds) {
+        if (System.nanoTime() - lastAccessNanos < validateAfterIdleNanos) {
+            return isOpen();
+        }
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    int getCachedStatementCount() {
+        return statementCache != null ? statementCache.size() : 0;
+    }
+
+    void closePhysically() throws SQLException {
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        connection.close();
+    }
+
+    private static Constructor<?> handleConstructor() {
+        Object probe = Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        try {
+            return probe.getClass().getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static long pack(long generation, int state) {
+        return (generation << STATE_BITS) | (state & STATE_MASK);
+    }
+
+    private static int stateOf(long value) {
+        return (byte) (value & STATE_MASK);
+    }
+
+    private static long generationOf(long value) {
+        return value >>> STATE_BITS;
+    }
+
+    final class Handle implements InvocationHandler {
+        private final long generation;
+
+        private Handle(long generation) {
+            this.generation = generation;
+        }
+
+        PooledConnection getPooled() {
+            return PooledConnection.this;
+        }
+
+        boolean isCurrent() {
+            return stateAndGeneration.get() == pack(generation, STATE_IN_USE);
+        }
+
+        boolean release() {
+            return stateAndGeneration.compareAndSet(pack(generation, STATE_IN_USE),
+                    pack(generation, STATE_NOT_IN_USE));
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (isCurrent()) {
+                        pool.releaseConnection((Connection) target);
+                    }
+                    return null;
+                case "isClosed":
+                    return !isCurrent() || connection.isClosed();
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "PooledConnection[" + connection + ", borrow " + generation + "]";
+                default:
+            }
+            if (!isCurrent()) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if ("prepareStatement".equals(method.getName()) && statementCache != null) {
+                if (args.length == 1) {
+                    return statementCache.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && args[1] instanceof Integer autoGeneratedKeys) {
+                    return statementCache.prepare((String) args[0], autoGeneratedKeys);
+                }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
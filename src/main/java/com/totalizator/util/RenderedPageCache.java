@@ -0,0 +1,77 @@
+package com.totalizator.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public class RenderedPageCache {
+    private final ConcurrentHashMap<Locale, RenderedPage> pages = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RenderedPage get(Locale locale, long version) {
+        RenderedPage page = pages.get(locale);
+        if (page != null && page.version == version) {
+            hits.increment();
+            return page;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(Locale locale, RenderedPage page) {
+        pages.merge(locale, page, (current, candidate) -> candidate.version >= current.version ? candidate : current);
+    }
+
+    public void clear() {
+        pages.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public static final class RenderedPage {
+        private final long version;
+        private final String contentType;
+        private final Locale locale;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        public RenderedPage(long version, CapturingResponseWrapper capture) {
+            this.version = version;
+            this.contentType = capture.getContentType();
+            this.locale = capture.getCapturedLocale();
+            this.headers = capture.getCapturedHeaders();
+            this.body = capture.toByteArray();
+        }
+
+        public void writeTo(HttpServletResponse response) throws IOException {
+            if (locale != null) {
+                response.setLocale(locale);
+            }
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                List<String> values = header.getValue();
+                response.setHeader(header.getKey(), values.get(0));
+                for (int i = 1; i < values.size(); i++) {
+                    response.addHeader(header.getKey(), values.get(i));
+                }
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.totalizator.util;
+
+import com.totalizator.model.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Locale;
+
+
+public class SessionAuthStore implements AuthStore {
+
+    @Override
+    public void load(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        Object principal = session != null ? session.getAttribute(PRINCIPAL_ATTRIBUTE) : null;
+        Object locale = session != null ? session.getAttribute(LOCALE_ATTRIBUTE) : null;
+        if (principal instanceof UserPrincipal) {
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        }
+        request.setAttribute(LOCALE_ATTRIBUTE, locale instanceof Locale ? locale : Locale.ENGLISH);
+    }
+
+    @Override
+    public void signIn(HttpServletRequest request, HttpServletResponse response, UserPrincipal principal) {
+        Locale locale = AuthStore.getLocale(request);
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+        session = request.getSession(true);
+        session.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        session.setAttribute(LOCALE_ATTRIBUTE, locale);
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+    }
+
+    @Override
+    public void signOut(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+        request.removeAttribute(PRINCIPAL_ATTRIBUTE);
+    }
+
+    @Override
+    public void changeLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+        request.getSession(true).setAttribute(LOCALE_ATTRIBUTE, locale);
+        request.setAttribute(LOCALE_ATTRIBUTE, locale);
+    }
+}
@@ -0,0 +1,234 @@
+package com.totalizator.util;
+
+import com.totalizator.model.UserPrincipal;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+
+public class SignedTokenAuthStore implements AuthStore {
+    private static final Logger logger = LogManager.getLogger();
+    static final long DEFAULT_TTL_SECONDS = 1800;
+    static final long DEFAULT_MAX_LIFETIME_SECONDS = 43200;
+    private static final String TOKEN_COOKIE = "AUTH";
+    private static final String LOCALE_COOKIE = "LOCALE";
+    private static final String ISSUED_AT_ATTRIBUTE = "authIssuedAt";
+    private static final String TOKEN_VERSION = "v2";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Set<String> SUPPORTED_LOCALES = Set.of("en", "be-BY", "de", "ru-RU");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final long maxLifetimeSeconds;
+    private final IntFunction<Optional<UserPrincipal>> principalLoader;
+    private final ThreadLocal<Mac> macs;
+
+    public SignedTokenAuthStore(String secret, long ttlSeconds, long maxLifetimeSeconds,
+                                IntFunction<Optional<UserPrincipal>> principalLoader) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            logger.warn("auth.token.secret is not set, tokens are signed with a per-process key "
+                    + "and will not be accepted by other nodes");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlSeconds > 0 ? ttlSeconds : DEFAULT_TTL_SECONDS;
+        this.maxLifetimeSeconds = Math.max(this.ttlSeconds,
+                maxLifetimeSeconds > 0 ? maxLifetimeSeconds : DEFAULT_MAX_LIFETIME_SECONDS);
+        this.principalLoader = principalLoader;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public void load(HttpServletRequest request, HttpServletResponse response) {
+        String token = null;
+        String localeTag = null;
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (TOKEN_COOKIE.equals(cookie.getName())) {
+                    token = cookie.getValue();
+                } else if (LOCALE_COOKIE.equals(cookie.getName())) {
+                    localeTag = cookie.getValue();
+                }
+            }
+        }
+
+        Token verified = token != null ? verify(token) : null;
+        if (verified != null && verified.expiresAt - now() < ttlSeconds / 2
+                && verified.expiresAt < verified.issuedAt + maxLifetimeSeconds) {
+            verified = refresh(request, response, verified);
+        }
+        if (verified != null) {
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, verified.principal);
+            request.setAttribute(LOCALE_ATTRIBUTE, verified.locale);
+            request.setAttribute(ISSUED_AT_ATTRIBUTE, verified.issuedAt);
+            return;
+        }
+        if (token != null) {
+            clearCookie(request, response, TOKEN_COOKIE);
+        }
+        request.setAttribute(LOCALE_ATTRIBUTE, toLocale(localeTag));
+    }
+
+    @Override
+    public void signIn(HttpServletRequest request, HttpServletResponse response, UserPrincipal principal) {
+        long issuedAt = now();
+        writeToken(request, response, principal, AuthStore.getLocale(request), issuedAt);
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        request.setAttribute(ISSUED_AT_ATTRIBUTE, issuedAt);
+    }
+
+    @Override
+    public void signOut(HttpServletRequest request, HttpServletResponse response) {
+        clearCookie(request, response, TOKEN_COOKIE);
+        response.addCookie(newCookie(request, LOCALE_COOKIE, AuthStore.getLocale(request).toLanguageTag(), -1));
+        request.removeAttribute(PRINCIPAL_ATTRIBUTE);
+        request.removeAttribute(ISSUED_AT_ATTRIBUTE);
+    }
+
+    @Override
+    public void changeLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+        UserPrincipal principal = AuthStore.getPrincipal(request);
+        if (principal != null) {
+            Object issuedAt = request.getAttribute(ISSUED_AT_ATTRIBUTE);
+            writeToken(request, response, principal, locale, issuedAt instanceof Long ? (Long) issuedAt : now());
+        } else {
+            response.addCookie(newCookie(request, LOCALE_COOKIE, locale.toLanguageTag(), -1));
+        }
+        request.setAttribute(LOCALE_ATTRIBUTE, locale);
+    }
+
+    private Token refresh(HttpServletRequest request, HttpServletResponse response, Token verified) {
+        Optional<UserPrincipal> current;
+        try {
+            current = principalLoader.apply(verified.principal.getId());
+        } catch (RuntimeException e) {
+            logger.error("Error reloading user {} for token refresh", verified.principal.getId(), e);
+            return verified;
+        }
+        if (current.isEmpty()) {
+            logger.info("User {} no longer exists, rejecting auth token", verified.principal.getId());
+            return null;
+        }
+        UserPrincipal principal = current.get();
+        long expiresAt = writeToken(request, response, principal, verified.locale, verified.issuedAt);
+        return new Token(principal, verified.locale, verified.issuedAt, expiresAt);
+    }
+
+    private long writeToken(HttpServletRequest request, HttpServletResponse response,
+                            UserPrincipal principal, Locale locale, long issuedAt) {
+        long now = now();
+        long expiresAt = Math.min(now + ttlSeconds, issuedAt + maxLifetimeSeconds);
+        String payload = principal.getId() + "|" + principal.getRoleId() + "|" + principal.getRoleName()
+                + "|" + locale.toLanguageTag() + "|" + issuedAt + "|" + expiresAt + "|" + principal.getUsername();
+        String body = TOKEN_VERSION + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        String token = body + "." + ENCODER.encodeToString(sign(body));
+        response.addCookie(newCookie(request, TOKEN_COOKIE, token, (int) Math.max(0, expiresAt - now)));
+        return expiresAt;
+    }
+
+    private Token verify(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart <= 0 || !token.startsWith(TOKEN_VERSION + ".")) {
+            return null;
+        }
+        String body = token.substring(0, signatureStart);
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(sign(body), signature)) {
+                logger.warn("Rejected auth token with an invalid signature");
+                return null;
+            }
+            String payload = new String(DECODER.decode(body.substring(TOKEN_VERSION.length() + 1)),
+                    StandardCharsets.UTF_8);
+            String[] fields = payload.split("\\|", 7);
+            if (fields.length != 7) {
+                return null;
+            }
+            long issuedAt = Long.parseLong(fields[4]);
+            long expiresAt = Long.parseLong(fields[5]);
+            long now = now();
+            if (expiresAt <= now || now - issuedAt >= maxLifetimeSeconds) {
+                return null;
+            }
+            UserPrincipal principal = new UserPrincipal(Integer.parseInt(fields[0]), fields[6],
+                    Integer.parseInt(fields[1]), fields[2]);
+            return new Token(principal, toLocale(fields[3]), issuedAt, expiresAt);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Malformed auth token", e);
+            return null;
+        }
+    }
+
+    private byte[] sign(String body) {
+        return macs.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error initializing token signer", e);
+        }
+    }
+
+    private static Locale toLocale(String languageTag) {
+        return languageTag != null && SUPPORTED_LOCALES.contains(languageTag)
+                ? Locale.forLanguageTag(languageTag) : Locale.ENGLISH;
+    }
+
+    private static Cookie newCookie(HttpServletRequest request, String name, String value, int maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        String contextPath = request.getContextPath();
+        cookie.setPath(contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setMaxAge(maxAge);
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    private static void clearCookie(HttpServletRequest request, HttpServletResponse response, String name) {
+        response.addCookie(newCookie(request, name, "", 0));
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static final class Token {
+        private final UserPrincipal principal;
+        private final Locale locale;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        private Token(UserPrincipal principal, Locale locale, long issuedAt, long expiresAt) {
+            this.principal = principal;
+            this.locale = locale;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.totalizator.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+public class SingleFlight<K, V> {
+    private static final Logger logger = LogManager.getLogger(SingleFlight.class);
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+        return run(key, call, loader);
+    }
+
+    public boolean loadAsync(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, call) != null) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(key, call, loader);
+                } catch (RuntimeException e) {
+                    logger.warn("Background load failed for key {}", key, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    private V run(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
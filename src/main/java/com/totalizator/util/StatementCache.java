@@ -0,0 +1,194 @@
+package com.totalizator.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+final class StatementCache {
+    private static final Logger logger = LogManager.getLogger(StatementCache.class);
+
+    private final Connection connection;
+    private final Supplier<Connection> owner;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<StatementKey, CachedStatement> statements;
+
+    StatementCache(Connection connection, Supplier<Connection> owner, int maxSize, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.owner = owner;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        StatementKey key = new StatementKey(sql, autoGeneratedKeys);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+            return cached.borrow();
+        }
+
+        misses.increment();
+        PreparedStatement statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null) {
+            return statement;
+        }
+        CachedStatement created = new CachedStatement(key, statement);
+        statements.put(key, created);
+        return created.borrow();
+    }
+
+    synchronized void closeAll() {
+        List<CachedStatement> cached = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement statement : cached) {
+            statement.evict();
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private synchronized void returnStatement(CachedStatement cached, int generation) throws SQLException {
+        if (!cached.inUse || cached.generation != generation) {
+            return;
+        }
+        cached.inUse = false;
+        if (cached.evicted) {
+            cached.statement.close();
+            return;
+        }
+        try {
+            cached.reset();
+        } catch (SQLException e) {
+            logger.warn("Error resetting cached statement, closing it", e);
+            statements.remove(cached.key, cached);
+            cached.evict();
+        }
+    }
+
+    private record StatementKey(String sql, int autoGeneratedKeys) {
+    }
+
+    private final class CachedStatement {
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+        private int generation;
+
+        private CachedStatement(StatementKey key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        private PreparedStatement borrow() {
+            inUse = true;
+            generation++;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Handle(this, generation));
+        }
+
+        private void reset() throws SQLException {
+            statement.clearBatch();
+            statement.clearParameters();
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    logger.warn("Error closing cached statement", e);
+                }
+            }
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final int generation;
+
+        private Handle(CachedStatement cached, int generation) {
+            this.cached = cached;
+            this.generation = generation;
+        }
+
+        private boolean isCurrent() {
+            synchronized (StatementCache.this) {
+                return cached.inUse && cached.generation == generation;
+            }
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    returnStatement(cached, generation);
+                    return null;
+                case "isClosed":
+                    return !isCurrent() || cached.statement.isClosed();
+                case "getConnection":
+                    return owner.get();
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "CachedStatement[" + cached.key.sql() + "]";
+                default:
+            }
+            if (!isCurrent()) {
+                throw new SQLException("Statement has been returned to the cache");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.totalizator.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public final class TransactionManager {
+    private static final Logger logger = LogManager.getLogger(TransactionManager.class);
+    private static final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> afterCommitActions = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface TransactionalWork<T> {
+        T execute() throws SQLException;
+    }
+
+    private TransactionManager() {
+    }
+
+    public static <T> T inTransaction(TransactionalWork<T> work) {
+        if (boundConnection.get() != null) {
+            try {
+                return work.execute();
+            } catch (SQLException e) {
+                throw new RuntimeException("Transaction failed", e);
+            }
+        }
+
+        ConnectionPool connectionPool = ConnectionPool.getInstance();
+        Connection connection = connectionPool.getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connectionPool.releaseConnection(connection);
+            throw new RuntimeException("Error starting transaction", e);
+        }
+        boundConnection.set(connection);
+        afterCommitActions.set(new ArrayList<>());
+        List<Runnable> actions;
+        T result;
+        try {
+            result = work.execute();
+            connection.commit();
+            actions = afterCommitActions.get();
+        } catch (SQLException e) {
+            rollback(connection, e);
+            throw new RuntimeException("Transaction failed", e);
+        } catch (RuntimeException | Error e) {
+            rollback(connection, e);
+            throw e;
+        } finally {
+            boundConnection.remove();
+            afterCommitActions.remove();
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.warn("Error restoring autocommit", e);
+            }
+            connectionPool.releaseConnection(connection);
+        }
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.warn("After-commit action failed", e);
+            }
+        }
+        return result;
+    }
+
+    public static void afterCommit(Runnable action) {
+        List<Runnable> actions = afterCommitActions.get();
+        if (actions != null) {
+            actions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    public static boolean isActive() {
+        return boundConnection.get() != null;
+    }
+
+    static Connection getBoundConnection() {
+        return boundConnection.get();
+    }
+
+    private static void rollback(Connection connection, Throwable cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+        logger.warn("Transaction rolled back: {}", cause.getMessage());
+    }
+}
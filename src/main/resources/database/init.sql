@@ -44,7 +44,9 @@ CREATE TABLE IF NOT EXISTS competitions (
     score1 INT DEFAULT NULL,
     score2 INT DEFAULT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    KEY idx_competitions_start_date (start_date, id),
+    KEY idx_competitions_status_start_date (status, start_date, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Table: bet_types
@@ -69,7 +71,10 @@ CREATE TABLE IF NOT EXISTS bets (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (competition_id) REFERENCES competitions(id) ON DELETE RESTRICT,
-    FOREIGN KEY (bet_type_id) REFERENCES bet_types(id) ON DELETE RESTRICT
+    FOREIGN KEY (bet_type_id) REFERENCES bet_types(id) ON DELETE RESTRICT,
+    KEY idx_bets_user_created_at (user_id, created_at, id),
+    KEY idx_bets_created_at (created_at, id),
+    KEY idx_bets_competition_status (competition_id, status, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Table: competition_bet_types (for bookmaker to set multipliers per competition)
@@ -85,6 +90,27 @@ CREATE TABLE IF NOT EXISTS competition_bet_types (
     UNIQUE KEY unique_competition_bet_type (competition_id, bet_type_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Table: settlement_jobs (background bet settlement, one job per finished competition)
+CREATE TABLE IF NOT EXISTS settlement_jobs (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    competition_id INT NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'QUEUED',
+    total_bets INT NOT NULL DEFAULT 0,
+    processed_bets INT NOT NULL DEFAULT 0,
+    last_bet_id INT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    error VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (competition_id) REFERENCES competitions(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_settlement_competition (competition_id),
+    KEY idx_settlement_jobs_status (status, updated_at),
+    KEY idx_settlement_jobs_next_attempt (status, next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert initial data
 INSERT INTO roles (name, description) VALUES
 ('ADMIN', 'Администратор системы'),
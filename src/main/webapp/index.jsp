@@ -1,4 +1,4 @@
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <%@ page import="com.totalizator.service.factory.ServiceFactory" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
@@ -7,7 +7,7 @@
     if (request.getAttribute("competitions") == null) {
         try {
             java.util.List competitions = ServiceFactory.getInstance()
-                    .getCompetitionService().findAll();
+                    .getCompetitionService().findPage(null, 20).getItems();
             request.setAttribute("competitions", 
                     competitions != null ? competitions : new java.util.ArrayList());
         } catch (Exception e) {
@@ -15,7 +15,7 @@
         }
     }
 %>
-<fmt:setLocale value="${sessionScope.locale != null ? sessionScope.locale : 'en'}" />
+<fmt:setLocale value="${requestScope.locale != null ? requestScope.locale : 'en'}" />
 <fmt:setBundle basename="messages" />
 <!DOCTYPE html>
 <html>
@@ -103,16 +103,16 @@
         <nav>
             <a href="${pageContext.request.contextPath}/"><fmt:message key="nav.home" /></a>
             <c:choose>
-                <c:when test="${sessionScope.user == null}">
+                <c:when test="${requestScope.principal == null}">
                     <a href="${pageContext.request.contextPath}/login"><fmt:message key="nav.login" /></a>
                     <a href="${pageContext.request.contextPath}/register"><fmt:message key="nav.register" /></a>
                 </c:when>
                 <c:otherwise>
                     <a href="${pageContext.request.contextPath}/bets/"><fmt:message key="nav.bets" /></a>
-                    <c:if test="${sessionScope.user.role.name == 'ADMIN'}">
+                    <c:if test="${requestScope.principal.roleName == 'ADMIN'}">
                         <a href="${pageContext.request.contextPath}/admin/"><fmt:message key="nav.admin" /></a>
                     </c:if>
-                    <c:if test="${sessionScope.user.role.name == 'BOOKMAKER'}">
+                    <c:if test="${requestScope.principal.roleName == 'BOOKMAKER'}">
                         <a href="${pageContext.request.contextPath}/bookmaker/">Bookmaker</a>
                     </c:if>
                     <a href="${pageContext.request.contextPath}/logout"><fmt:message key="nav.logout" /></a>
@@ -146,7 +146,7 @@
                             <th><fmt:message key="competition.team2" /></th>
                             <th><fmt:message key="competition.startDate" /></th>
                             <th><fmt:message key="competition.status" /></th>
-                            <c:if test="${sessionScope.user != null}">
+                            <c:if test="${requestScope.principal != null}">
                                 <th><fmt:message key="common.action" /></th>
                             </c:if>
                         </tr>
@@ -180,7 +180,7 @@
                                         <c:otherwise>N/A</c:otherwise>
                                     </c:choose>
                                 </td>
-                                <c:if test="${sessionScope.user != null}">
+                                <c:if test="${requestScope.principal != null}">
                                     <td>
                                         <c:if test="${competition.status != null && competition.status.name() == 'SCHEDULED'}">
                                             <a href="${pageContext.request.contextPath}/bets/create/${competition.id}" class="btn">
@@ -193,6 +193,14 @@
                         </c:forEach>
                     </tbody>
                 </table>
+                <div style="margin-top: 15px;">
+                    <c:if test="${not empty page.previousCursor}">
+                        <a href="${pageContext.request.contextPath}/?cursor=${page.previousCursor}" class="btn">&laquo; <fmt:message key="common.previous" /></a>
+                    </c:if>
+                    <c:if test="${not empty page.nextCursor}">
+                        <a href="${pageContext.request.contextPath}/?cursor=${page.nextCursor}" class="btn"><fmt:message key="common.next" /> &raquo;</a>
+                    </c:if>
+                </div>
             </c:when>
             <c:when test="${competitions != null && empty competitions}">
                 <p style="color: orange;"><fmt:message key="home.no.competitions" /></p>
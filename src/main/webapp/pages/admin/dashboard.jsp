@@ -1,7 +1,7 @@
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
-<fmt:setLocale value="${sessionScope.locale != null ? sessionScope.locale : 'en'}" />
+<fmt:setLocale value="${requestScope.locale != null ? requestScope.locale : 'en'}" />
 <fmt:setBundle basename="messages" />
 <!DOCTYPE html>
 <html>
@@ -15,6 +15,9 @@
         nav a:hover { background-color: #555; border-radius: 4px; }
         .section { margin-top: 30px; }
         .btn { padding: 8px 16px; background-color: #4CAF50; color: white; text-decoration: none; border-radius: 4px; }
+        table { border-collapse: collapse; }
+        th, td { padding: 6px 10px; border: 1px solid #ddd; }
+        th { background-color: #4CAF50; color: white; }
     </style>
 </head>
 <body>
@@ -36,6 +39,51 @@
         <h2><fmt:message key="admin.users" /></h2>
         <a href="${pageContext.request.contextPath}/admin/users" class="btn"><fmt:message key="admin.users" /></a>
     </div>
+
+    <div class="section">
+        <h2><fmt:message key="admin.cache" /></h2>
+        <p>
+            <fmt:message key="admin.cache.hit.ratio" />:
+            <fmt:formatNumber value="${competitionCache.hitRatio}" type="percent" maxFractionDigits="1" />
+            (${competitionCache.hits} / ${competitionCache.hits + competitionCache.misses})
+        </p>
+        <p><fmt:message key="admin.cache.stale" />: ${competitionCache.staleHits}</p>
+        <p><fmt:message key="admin.cache.coalesced" />: ${competitionCache.coalescedLoads}</p>
+    </div>
+
+    <div class="section">
+        <h2><fmt:message key="admin.settlement" /></h2>
+        <c:choose>
+            <c:when test="${empty settlementJobs}">
+                <p><fmt:message key="admin.settlement.empty" /></p>
+            </c:when>
+            <c:otherwise>
+                <table>
+                    <tr>
+                        <th><fmt:message key="admin.settlement.competition" /></th>
+                        <th><fmt:message key="admin.settlement.status" /></th>
+                        <th><fmt:message key="admin.settlement.progress" /></th>
+                        <th><fmt:message key="admin.settlement.throughput" /></th>
+                        <th><fmt:message key="admin.settlement.attempts" /></th>
+                        <th><fmt:message key="admin.settlement.error" /></th>
+                    </tr>
+                    <c:forEach var="job" items="${settlementJobs}">
+                        <tr>
+                            <td>${job.competitionTitle}</td>
+                            <td>${job.status}</td>
+                            <td>
+                                ${job.processedBets} / ${job.totalBets}
+                                (<fmt:formatNumber value="${job.progress}" type="percent" maxFractionDigits="0" />)
+                            </td>
+                            <td><fmt:formatNumber value="${job.throughput}" maxFractionDigits="1" /></td>
+                            <td>${job.attempts}</td>
+                            <td><c:out value="${job.error}" /></td>
+                        </tr>
+                    </c:forEach>
+                </table>
+            </c:otherwise>
+        </c:choose>
+    </div>
 </body>
 </html>
 
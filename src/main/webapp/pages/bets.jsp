@@ -1,7 +1,7 @@
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
-<fmt:setLocale value="${sessionScope.locale != null ? sessionScope.locale : 'en'}" />
+<fmt:setLocale value="${requestScope.locale != null ? requestScope.locale : 'en'}" />
 <fmt:setBundle basename="messages" />
 <!DOCTYPE html>
 <html>
@@ -123,6 +123,14 @@
                         </c:forEach>
                     </tbody>
                 </table>
+                <div style="margin-top: 15px;">
+                    <c:if test="${not empty page.previousCursor}">
+                        <a href="${pageContext.request.contextPath}/bets/?cursor=${page.previousCursor}" class="btn">&laquo; <fmt:message key="common.previous" /></a>
+                    </c:if>
+                    <c:if test="${not empty page.nextCursor}">
+                        <a href="${pageContext.request.contextPath}/bets/?cursor=${page.nextCursor}" class="btn"><fmt:message key="common.next" /> &raquo;</a>
+                    </c:if>
+                </div>
             </c:when>
             <c:otherwise>
                 <p><fmt:message key="bet.no.bets" /></p>
@@ -1,7 +1,7 @@
-<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page contentType="text/html;charset=UTF-8" language="java" session="false" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
-<fmt:setLocale value="${sessionScope.locale != null ? sessionScope.locale : 'en'}" />
+<fmt:setLocale value="${requestScope.locale != null ? requestScope.locale : 'en'}" />
 <fmt:setBundle basename="messages" />
 <!DOCTYPE html>
 <html>
@@ -82,7 +82,7 @@
                 <select name="betTypeId" required>
                     <option value="">Select bet type</option>
                     <c:forEach var="betType" items="${betTypes}">
-                        <option value="${betType.id}">${betType.name} - ${betType.description}</option>
+                        <option value="${betType.id}">${betType.name} - ${betType.description} (x${odds.getMultiplier(betType)})</option>
                     </c:forEach>
                 </select>
             </div>
@@ -94,7 +94,7 @@
             
             <div class="form-group">
                 <label><fmt:message key="bet.predictedValue" /></label>
-                <input type="text" name="predictedValue" required placeholder="e.g., TEAM1, DRAW, 2:1">
+                <input type="text" name="predictedValue" required placeholder="e.g., TEAM1, DRAW, 2:1, 2.5">
             </div>
             
             <button type="submit" class="btn"><fmt:message key="bet.place" /></button>
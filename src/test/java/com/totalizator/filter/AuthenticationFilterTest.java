@@ -0,0 +1,128 @@
+package com.totalizator.filter;
+
+import com.totalizator.routing.Route;
+import com.totalizator.routing.RouteMatch;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AuthenticationFilterTest {
+    private AuthenticationFilter filter;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @Before
+    public void setUp() throws Exception {
+        filter = new AuthenticationFilter();
+        filter.init(mock(FilterConfig.class));
+        response = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    public void pathParameterDoesNotMakeAdminRouteStatic() throws Exception {
+        HttpServletRequest request = request("POST", "/app/admin/user/create;.css");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        verify(response).sendRedirect("/app/login");
+        assertEquals(Route.ADMIN_CREATE_USER, storedMatch(request).getRoute());
+    }
+
+    @Test
+    public void pathParameterDoesNotMakeBookmakerRouteStatic() throws Exception {
+        HttpServletRequest request = request("POST", "/app/bookmaker/odds/update;.js");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        verify(response).sendRedirect("/app/login");
+    }
+
+    @Test
+    public void pathParameterInsideSegmentIsStripped() throws Exception {
+        HttpServletRequest request = request("GET", "/app/admin/competition;x=1/generate/7;.css");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        RouteMatch match = storedMatch(request);
+        assertEquals(Route.ADMIN_GENERATE_RESULT, match.getRoute());
+        assertEquals(7, match.getInt("competitionId"));
+    }
+
+    @Test
+    public void encodedApiPathRequiresAuthentication() throws Exception {
+        HttpServletRequest request = request("POST", "/app/%61pi/bets;.js");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        verify(response).sendError(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    @Test
+    public void dotSegmentsAreRejected() throws Exception {
+        HttpServletRequest request = request("GET", "/app/css/..;/admin/users");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void encodedDotSegmentsAreRejected() throws Exception {
+        HttpServletRequest request = request("GET", "/app/css/%2e%2e/admin/users");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST);
+    }
+
+    @Test
+    public void unroutedStaticResourcePassesThrough() throws Exception {
+        HttpServletRequest request = request("GET", "/app/css/style.css");
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verify(request, never()).setAttribute(eq(RouteMatch.ATTRIBUTE), any());
+    }
+
+    @Test
+    public void routeMatchIsOnlyWhatTheFilterStored() {
+        HttpServletRequest request = request("POST", "/app/admin/user/create");
+
+        assertNull(RouteMatch.from(request));
+    }
+
+    private static HttpServletRequest request(String method, String uri) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getContextPath()).thenReturn("/app");
+        return request;
+    }
+
+    private static RouteMatch storedMatch(HttpServletRequest request) {
+        ArgumentCaptor<Object> match = ArgumentCaptor.forClass(Object.class);
+        verify(request).setAttribute(eq(RouteMatch.ATTRIBUTE), match.capture());
+        return (RouteMatch) match.getValue();
+    }
+}
@@ -0,0 +1,43 @@
+package com.totalizator.filter;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.regex.Pattern;
+
+
+final class LegacyXssSanitizer {
+    private static final Pattern[] XSS_PATTERNS = {
+        Pattern.compile("<script>(.*?)</script>", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("src[\r\n]*=[\r\n]*['\"]?(.*?)['\"]", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("</script>", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("<script(.*?)>", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("eval\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("expression\\((.*?)\\)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("javascript:", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("vbscript:", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("onload(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL),
+        Pattern.compile("onerror(.*?)=", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL)
+    };
+
+    private LegacyXssSanitizer() {
+    }
+
+    static String stripXSS(String value) {
+        if (StringUtils.isBlank(value)) {
+            return value;
+        }
+
+        String sanitized = value;
+        for (Pattern pattern : XSS_PATTERNS) {
+            sanitized = pattern.matcher(sanitized).replaceAll("");
+        }
+
+        sanitized = sanitized.replace("<", "&lt;")
+                            .replace(">", "&gt;")
+                            .replace("\"", "&quot;")
+                            .replace("'", "&#x27;")
+                            .replace("/", "&#x2F;");
+
+        return sanitized;
+    }
+}
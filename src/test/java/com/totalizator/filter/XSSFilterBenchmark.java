@@ -0,0 +1,65 @@
+package com.totalizator.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XSSFilterBenchmark {
+    private static final int INPUTS = 1024;
+
+    @Param({"plain", "prose", "markup"})
+    public String input;
+
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            switch (input) {
+                case "plain":
+                    values[i] = "Team " + random.nextInt(100) + " vs Team " + random.nextInt(100) + ", amount 100.50";
+                    break;
+                case "prose":
+                    values[i] = "Match description " + random.nextInt(100) + ": odds source is the bookmaker's evaluation";
+                    break;
+                default:
+                    values[i] = XSSFilterTest.randomInput(random);
+            }
+        }
+    }
+
+    @Benchmark
+    public void regexChain(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(LegacyXssSanitizer.stripXSS(value));
+        }
+    }
+
+    @Benchmark
+    public void scanners(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(XSSFilter.stripXSS(value));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.totalizator.filter;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class XSSFilterTest {
+    static final String[] FRAGMENTS = {
+            "<script>", "</script>", "<SCRIPT type='x'>", "</ScRiPt>", "<script", "src", "SRC", "=", "\r\n",
+            "eval(", "EVAL (", "expression(", "javascript:", "JavaScript :", "vbscript:", "onload", "ONERROR",
+            "on", "load", "error", "(", ")", "<", ">", "\"", "'", "/", "&", " ", "\t", "a", "Team 1",
+            "100.50", "привет", "ü", "😀", "img", "alert(1)", "=\"", "src='x'", "\n", "\u2028", "\u0085",
+            "description", "scr", "ipt>"
+    };
+
+    @Test
+    public void matchesBaselineForRandomInputs() {
+        Random random = new Random(20261017L);
+        for (int i = 0; i < 200_000; i++) {
+            String input = randomInput(random);
+            assertEquals("input: " + input, LegacyXssSanitizer.stripXSS(input), XSSFilter.stripXSS(input));
+        }
+    }
+
+    @Test
+    public void matchesBaselineForKnownPayloads() {
+        String[] inputs = {
+                "", " ", "plain text", "<script>alert(1)</script>", "<img src=\"x\" onerror=alert(1)>",
+                "<a href='javascript:alert(1)'>x</a>", "style=\"width: expression(alert(1))\"",
+                "<body onload=init()>", "eval(document.cookie)", "<SCRIPT SRC=//evil/x.js></SCRIPT>",
+                "src\r\n=\r\n'a'", "onloadonerror==", "https://example.com/path?a=1&b=2",
+                "<script>a\nb</script>", "<script>a\u2028b</script><script>c</script>", "<scr<script>x</script>ipt>",
+                "src='", "src=\"a'", "src=x", "ev<script>1</script>al(x)", "Match description: odds source"
+        };
+        for (String input : inputs) {
+            assertEquals("input: " + input, LegacyXssSanitizer.stripXSS(input), XSSFilter.stripXSS(input));
+        }
+    }
+
+    @Test
+    public void keepsNullAsNull() {
+        assertNull(XSSFilter.stripXSS(null));
+    }
+
+    static String randomInput(Random random) {
+        StringBuilder input = new StringBuilder();
+        int parts = random.nextInt(12);
+        for (int i = 0; i < parts; i++) {
+            input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return input.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.totalizator.service.cache;
+
+import com.totalizator.dao.Page;
+import com.totalizator.model.Competition;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class CompetitionCacheTest {
+    private CompetitionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new CompetitionCache(100, 60_000, 0);
+    }
+
+    @Test
+    public void cachedListReturnsCopies() {
+        Competition loaded = new Competition(1, "Final", "FOOTBALL", null, "A", "B");
+        List<Competition> first = cache.getList("all", () -> new ArrayList<>(List.of(loaded)));
+        first.get(0).setTitle("Changed");
+
+        List<Competition> second = cache.getList("all", List::of);
+
+        assertEquals("Final", second.get(0).getTitle());
+        assertNotSame(first.get(0), second.get(0));
+        assertNotSame(loaded, second.get(0));
+    }
+
+    @Test
+    public void cachedPageReturnsCopies() {
+        Competition loaded = new Competition(1, "Final", "FOOTBALL", null, "A", "B");
+        Page<Competition> first = cache.getPage("page:20",
+                () -> new Page<>(new ArrayList<>(List.of(loaded)), "next", null));
+        first.getItems().get(0).setTitle("Changed");
+
+        Page<Competition> second = cache.getPage("page:20", Page::empty);
+
+        assertEquals("Final", second.getItems().get(0).getTitle());
+        assertEquals("next", second.getNextCursor());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void cachedListIsUnmodifiable() {
+        cache.getList("all", () -> new ArrayList<>(List.of(new Competition()))).clear();
+    }
+}
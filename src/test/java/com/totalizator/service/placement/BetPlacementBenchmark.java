@@ -0,0 +1,83 @@
+package com.totalizator.service.placement;
+
+import com.totalizator.dao.BetDao;
+import com.totalizator.model.Bet;
+import com.totalizator.model.User;
+import com.totalizator.service.cache.UserCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(64)
+public class BetPlacementBenchmark {
+    private static final long TRANSACTION_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(1000);
+    private static final long ROW_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    @Param({"1", "100"})
+    public int maxBatchSize;
+
+    private BetPlacementQueue queue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new BetPlacementQueue(stubBetDao(), new UserCache(1_000, 30_000), maxBatchSize, 5, 10_000, 10_000);
+        queue.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queue.shutdown();
+    }
+
+    @Benchmark
+    public Bet placeBet() throws Exception {
+        User user = new User();
+        user.setId(ThreadLocalRandom.current().nextInt(1, 1_000));
+        Bet bet = new Bet();
+        bet.setUser(user);
+        bet.setAmount(BigDecimal.TEN);
+        CompletableFuture<Bet> placement = queue.submit(bet);
+        return placement.get(queue.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static BetDao stubBetDao() {
+        return (BetDao) Proxy.newProxyInstance(BetDao.class.getClassLoader(), new Class<?>[]{BetDao.class},
+                (proxy, method, args) -> {
+                    if (!"placeBatch".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<?> bets = (List<?>) args[0];
+                    LockSupport.parkNanos(TRANSACTION_LATENCY_NANOS + ROW_LATENCY_NANOS * bets.size());
+                    boolean[] placed = new boolean[bets.size()];
+                    Arrays.fill(placed, true);
+                    return placed;
+                });
+    }
+}
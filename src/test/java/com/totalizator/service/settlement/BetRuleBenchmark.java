@@ -0,0 +1,70 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.model.Bet;
+import com.totalizator.model.Competition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BetRuleBenchmark {
+    private static final int BETS = 1_000_000;
+
+    private final BetRuleRegistry registry = new BetRuleRegistry();
+    private List<Bet> bets;
+    private Competition competition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        competition = BetRuleTest.competition(2, 1);
+        bets = new ArrayList<>(BETS);
+        for (int i = 0; i < BETS; i++) {
+            bets.add(BetRuleTest.bet(random.nextInt(BetRuleTest.BET_TYPES.length),
+                    BetRuleTest.randomPrediction(random)));
+        }
+    }
+
+    @Benchmark
+    public int stringDispatch() {
+        int won = 0;
+        for (Bet bet : bets) {
+            if (LegacyBetRules.checkBetWin(bet, competition)) {
+                won++;
+            }
+        }
+        return won;
+    }
+
+    @Benchmark
+    public int compiledRules() {
+        Outcome outcome = Outcome.compile(competition);
+        int won = 0;
+        for (Bet bet : bets) {
+            BetRule rule = registry.getRule(bet.getBetType());
+            if (rule != null && rule.isWinning(bet.getPredictedValue(), outcome)) {
+                won++;
+            }
+        }
+        return won;
+    }
+}
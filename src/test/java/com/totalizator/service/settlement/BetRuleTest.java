@@ -0,0 +1,96 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.model.Bet;
+import com.totalizator.model.BetType;
+import com.totalizator.model.Competition;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BetRuleTest {
+    static final String[] BET_TYPES = {"WIN", "DRAW", "LOSS", "EXACT_SCORE", "TOTAL_OVER", "TOTAL_UNDER"};
+    static final String[] RESULTS = {"WIN_TEAM1", "WIN_TEAM2", "DRAW"};
+    static final String[] PREDICTIONS = {
+            "TEAM1", "TEAM2", "DRAW", "team1", "TEAM3", "", " TEAM1",
+            "0:0", "1:0", "2:1", "1:2", "3:3", "02:1", "2:01", "2:", ":1", "2-1", "2:1:0", "-1:2", "+2:1",
+            "0", "1", "2.5", "3.0", "0.5", "03.5", "10", "2.", ".5", "2.55", "-2.5", "2,5", "123456", "99999.9"
+    };
+
+    private final BetRuleRegistry registry = new BetRuleRegistry();
+
+    @Test
+    public void matchesBaselineForRandomBets() {
+        Random random = new Random(20261017L);
+        for (int i = 0; i < 100_000; i++) {
+            Competition competition = competition(random.nextInt(7), random.nextInt(7));
+            Bet bet = bet(random.nextInt(BET_TYPES.length), randomPrediction(random));
+            assertMatchesBaseline(bet, competition);
+        }
+    }
+
+    @Test
+    public void matchesBaselineForEveryPredictionAndScore() {
+        for (int score1 = 0; score1 <= 5; score1++) {
+            for (int score2 = 0; score2 <= 5; score2++) {
+                Competition competition = competition(score1, score2);
+                for (int type = 0; type < BET_TYPES.length; type++) {
+                    for (String prediction : PREDICTIONS) {
+                        assertMatchesBaseline(bet(type, prediction), competition);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void totalEqualToThresholdLoses() {
+        Outcome outcome = Outcome.compile(competition(2, 1));
+        assertFalse(BetRule.TOTAL_OVER.isWinning("3", outcome));
+        assertFalse(BetRule.TOTAL_UNDER.isWinning("3.0", outcome));
+        assertTrue(BetRule.TOTAL_OVER.isWinning("2.5", outcome));
+        assertTrue(BetRule.TOTAL_UNDER.isWinning("3.5", outcome));
+    }
+
+    @Test
+    public void competitionWithoutScoreNeverWins() {
+        Competition competition = new Competition(1, "Final", "FOOTBALL", null, "A", "B");
+        assertFalse(BetRule.WIN.isWinning("TEAM1", Outcome.compile(competition)));
+    }
+
+    private void assertMatchesBaseline(Bet bet, Competition competition) {
+        boolean expected = LegacyBetRules.checkBetWin(bet, competition);
+        BetRule rule = registry.getRule(bet.getBetType());
+        boolean actual = rule.isWinning(bet.getPredictedValue(), Outcome.compile(competition));
+        assertEquals(bet.getBetType().getName() + " '" + bet.getPredictedValue() + "' on "
+                + competition.getScore1() + ":" + competition.getScore2(), expected, actual);
+    }
+
+    static String randomPrediction(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(7) + ":" + random.nextInt(7);
+            case 1:
+                return random.nextInt(8) + (random.nextBoolean() ? "." + random.nextInt(10) : "");
+            default:
+                return PREDICTIONS[random.nextInt(PREDICTIONS.length)];
+        }
+    }
+
+    static Competition competition(int score1, int score2) {
+        Competition competition = new Competition(1, "Final", "FOOTBALL", null, "A", "B");
+        competition.setScore1(score1);
+        competition.setScore2(score2);
+        competition.setResult(score1 > score2 ? RESULTS[0] : score1 < score2 ? RESULTS[1] : RESULTS[2]);
+        return competition;
+    }
+
+    static Bet bet(int type, String prediction) {
+        BetType betType = new BetType(type + 1, BET_TYPES[type], BET_TYPES[type], BigDecimal.valueOf(2));
+        return new Bet(1, null, null, betType, BigDecimal.TEN, prediction);
+    }
+}
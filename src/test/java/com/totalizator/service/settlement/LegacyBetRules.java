@@ -0,0 +1,49 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.model.Bet;
+import com.totalizator.model.Competition;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+
+final class LegacyBetRules {
+    private static final Pattern TOTAL = Pattern.compile("^[0-9]{1,5}([.][0-9])?$");
+
+    private LegacyBetRules() {
+    }
+
+    static boolean checkBetWin(Bet bet, Competition competition) {
+        String betTypeName = bet.getBetType().getName();
+        String predictedValue = bet.getPredictedValue();
+        String result = competition.getResult();
+        Integer score1 = competition.getScore1();
+        Integer score2 = competition.getScore2();
+
+        if (score1 == null || score2 == null) {
+            return false;
+        }
+
+        switch (betTypeName) {
+            case "WIN":
+                return (result.equals("WIN_TEAM1") && predictedValue.equals("TEAM1")) ||
+                       (result.equals("WIN_TEAM2") && predictedValue.equals("TEAM2"));
+            case "DRAW":
+                return result.equals("DRAW") && predictedValue.equals("DRAW");
+            case "LOSS":
+                return (result.equals("WIN_TEAM2") && predictedValue.equals("TEAM1")) ||
+                       (result.equals("WIN_TEAM1") && predictedValue.equals("TEAM2"));
+            case "EXACT_SCORE":
+                String expectedScore = score1 + ":" + score2;
+                return expectedScore.equals(predictedValue);
+            case "TOTAL_OVER":
+                return TOTAL.matcher(predictedValue).matches()
+                        && BigDecimal.valueOf(score1 + score2).compareTo(new BigDecimal(predictedValue)) > 0;
+            case "TOTAL_UNDER":
+                return TOTAL.matcher(predictedValue).matches()
+                        && BigDecimal.valueOf(score1 + score2).compareTo(new BigDecimal(predictedValue)) < 0;
+            default:
+                return false;
+        }
+    }
+}
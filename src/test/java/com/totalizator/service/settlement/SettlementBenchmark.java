@@ -0,0 +1,115 @@
+package com.totalizator.service.settlement;
+
+import com.totalizator.dao.BetDao;
+import com.totalizator.model.Bet;
+import com.totalizator.model.BetType;
+import com.totalizator.model.Competition;
+import com.totalizator.model.OddsSnapshot;
+import com.totalizator.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SettlementBenchmark {
+    private static final int BETS = 20_000;
+    private static final int USERS = 2_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final long BATCH_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final long ROW_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(5);
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private final BetEvaluator betEvaluator = new BetEvaluator();
+    private List<Bet> bets;
+    private Outcome outcome;
+    private OddsSnapshot odds;
+    private PartitionedSettlement settlement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Competition competition = new Competition(1, "Final", "FOOTBALL", null, "A", "B");
+        competition.setScore1(2);
+        competition.setScore2(1);
+        competition.setResult("WIN_TEAM1");
+        outcome = Outcome.compile(competition);
+
+        String[] names = {"WIN", "DRAW", "LOSS", "EXACT_SCORE", "TOTAL_OVER", "TOTAL_UNDER"};
+        String[] predictions = {"TEAM1", "DRAW", "TEAM2", "2:1", "2.5", "2.5"};
+        BetType[] betTypes = new BetType[names.length];
+        Map<Integer, BigDecimal> multipliers = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            betTypes[i] = new BetType(i + 1, names[i], names[i], new BigDecimal("1.85"));
+            multipliers.put(i + 1, new BigDecimal("1.85"));
+        }
+        odds = OddsSnapshot.of(1, multipliers);
+
+        User[] users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new User(i + 1, "user" + i, null, null, null, null, null, BigDecimal.ZERO);
+        }
+        Random random = new Random(42);
+        bets = new ArrayList<>(BETS);
+        for (int i = 0; i < BETS; i++) {
+            int type = random.nextInt(betTypes.length);
+            bets.add(new Bet(i + 1, users[random.nextInt(USERS)], competition, betTypes[type],
+                    BigDecimal.valueOf(1 + random.nextInt(10_000), 2), predictions[type]));
+        }
+        settlement = new PartitionedSettlement(stubBetDao(), parallelism, BATCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        settlement.shutdown();
+    }
+
+    @Benchmark
+    public int settle() {
+        int chunkSize = settlement.getChunkSize();
+        int settled = 0;
+        for (int from = 0; from < bets.size(); from += chunkSize) {
+            List<Bet> chunk = bets.subList(from, Math.min(bets.size(), from + chunkSize));
+            settled += settlement.settle(chunk, bet -> betEvaluator.evaluate(bet, outcome, odds));
+        }
+        return settled;
+    }
+
+    private static BetDao stubBetDao() {
+        return (BetDao) Proxy.newProxyInstance(BetDao.class.getClassLoader(), new Class<?>[]{BetDao.class},
+                (proxy, method, args) -> {
+                    if (!"settleBatch".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<?> batch = (List<?>) args[0];
+                    LockSupport.parkNanos(BATCH_LATENCY_NANOS + ROW_LATENCY_NANOS * batch.size());
+                    return batch.size();
+                });
+    }
+}
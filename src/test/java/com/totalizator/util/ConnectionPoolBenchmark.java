@@ -0,0 +1,92 @@
+package com.totalizator.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+    private static final int POOL_SIZE = 32;
+
+    @Param({"current", "legacy"})
+    public String pool;
+
+    private ConnectionPool currentPool;
+    private LegacyConnectionPool legacyPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubDriver.register();
+        Properties properties = StubDriver.poolProperties(POOL_SIZE, POOL_SIZE);
+        properties.setProperty("db.pool.statementCacheSize", "0");
+        properties.setProperty("db.pool.acquireTimeoutMillis", "60000");
+        if ("current".equals(pool)) {
+            currentPool = new ConnectionPool(properties);
+        } else {
+            legacyPool = new LegacyConnectionPool(properties);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (currentPool != null) {
+            currentPool.shutdown();
+        }
+        if (legacyPool != null) {
+            legacyPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads001() {
+        acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void threads008() {
+        acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads064() {
+        acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(512)
+    public void threads512() {
+        acquireAndRelease();
+    }
+
+    private void acquireAndRelease() {
+        if (currentPool != null) {
+            currentPool.releaseConnection(currentPool.getConnection());
+        } else {
+            Connection connection = legacyPool.getConnection();
+            legacyPool.releaseConnection(connection);
+        }
+    }
+}
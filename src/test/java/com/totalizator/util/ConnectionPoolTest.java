@@ -0,0 +1,91 @@
+package com.totalizator.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConnectionPoolTest {
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        StubDriver.register();
+        StubDriver.getConnections().clear();
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void everyBorrowGetsItsOwnHandle() throws SQLException {
+        pool = new ConnectionPool(StubDriver.poolProperties(1, 1));
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+
+        assertNotSame(first, second);
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        pool.releaseConnection(second);
+    }
+
+    @Test
+    public void doubleCloseDoesNotReleaseTheNextBorrower() throws SQLException {
+        pool = new ConnectionPool(StubDriver.poolProperties(1, 1));
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+
+        first.close();
+        pool.releaseConnection(first);
+
+        assertEquals(0, pool.getIdleConnections());
+        assertFalse(second.isClosed());
+        second.close();
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    public void staleHandleCannotBeUsed() throws SQLException {
+        pool = new ConnectionPool(StubDriver.poolProperties(1, 1));
+        Connection first = pool.getConnection();
+        pool.releaseConnection(first);
+        Connection second = pool.getConnection();
+        try {
+            first.prepareStatement("SELECT 1");
+            fail("A returned handle must not reach the physical connection");
+        } catch (SQLException expected) {
+            assertFalse(second.isClosed());
+        } finally {
+            pool.releaseConnection(second);
+        }
+    }
+
+    @Test
+    public void idleConnectionIsValidatedBeforeReuse() {
+        Properties properties = StubDriver.poolProperties(1, 1);
+        properties.setProperty("db.pool.validationIdleMillis", "0");
+        pool = new ConnectionPool(properties);
+        pool.releaseConnection(pool.getConnection());
+        StubDriver.getConnections().get(0).invalidate();
+
+        pool.releaseConnection(pool.getConnection());
+
+        assertEquals(2, StubDriver.getConnections().size());
+        assertTrue(StubDriver.getConnections().get(0).isClosed());
+    }
+}
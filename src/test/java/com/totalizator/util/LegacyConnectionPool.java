@@ -0,0 +1,118 @@
+package com.totalizator.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+final class LegacyConnectionPool {
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final BlockingDeque<Connection> free = new LinkedBlockingDeque<>();
+    private final Set<Connection> used = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+
+    LegacyConnectionPool(Properties properties) {
+        dbUrl = properties.getProperty("db.url");
+        dbUser = properties.getProperty("db.user");
+        dbPassword = properties.getProperty("db.password");
+        maxSize = Integer.parseInt(properties.getProperty("db.pool.maxSize", "32"));
+        acquireTimeoutMillis = Long.parseLong(properties.getProperty("db.pool.acquireTimeoutMillis", "5000"));
+    }
+
+    Connection getConnection() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        while (true) {
+            Connection connection = free.pollFirst();
+            if (connection == null) {
+                Connection created = tryCreateConnection();
+                if (created != null) {
+                    used.add(created);
+                    return created;
+                }
+                connection = awaitFreeConnection(deadline);
+            }
+            if (isUsable(connection)) {
+                used.add(connection);
+                return connection;
+            }
+            discard(connection);
+        }
+    }
+
+    void releaseConnection(Connection connection) {
+        if (connection == null || !used.remove(connection)) {
+            return;
+        }
+        if (isUsable(connection)) {
+            free.offerFirst(connection);
+        } else {
+            discard(connection);
+        }
+    }
+
+    void shutdown() {
+        Connection connection;
+        while ((connection = free.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    private Connection awaitFreeConnection(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        try {
+            Connection connection = remaining > 0 ? free.pollFirst(remaining, TimeUnit.NANOSECONDS) : null;
+            if (connection == null) {
+                throw new ConnectionPoolException("Timed out waiting for a database connection");
+            }
+            return connection;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionPoolException("Interrupted while getting connection", e);
+        }
+    }
+
+    private Connection tryCreateConnection() {
+        int current;
+        do {
+            current = totalConnections.get();
+            if (current >= maxSize) {
+                return null;
+            }
+        } while (!totalConnections.compareAndSet(current, current + 1));
+        try {
+            return DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+        } catch (SQLException e) {
+            totalConnections.decrementAndGet();
+            throw new ConnectionPoolException("Failed to open database connection", e);
+        }
+    }
+
+    private void discard(Connection connection) {
+        totalConnections.decrementAndGet();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new ConnectionPoolException("Error closing database connection", e);
+        }
+    }
+
+    private static boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
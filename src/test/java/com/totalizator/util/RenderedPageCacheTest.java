@@ -0,0 +1,62 @@
+package com.totalizator.util;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RenderedPageCacheTest {
+    private HttpServletResponse original;
+    private RenderedPageCache cache;
+
+    @Before
+    public void setUp() {
+        original = mock(HttpServletResponse.class);
+        when(original.getCharacterEncoding()).thenReturn("UTF-8");
+        when(original.getContentType()).thenReturn("text/html;charset=UTF-8");
+        cache = new RenderedPageCache();
+    }
+
+    @Test
+    public void replaysLocaleContentTypeAndHeaders() throws IOException {
+        CapturingResponseWrapper capture = new CapturingResponseWrapper(original);
+        capture.setLocale(Locale.GERMAN);
+        capture.setHeader("X-Frame-Options", "DENY");
+        capture.addHeader("Link", "</a.css>; rel=preload");
+        capture.addHeader("link", "</b.js>; rel=preload");
+        capture.getWriter().write("<html>Wettbewerbe</html>");
+        cache.put(Locale.GERMAN, new RenderedPageCache.RenderedPage(7, capture));
+
+        HttpServletResponse replayed = mock(HttpServletResponse.class);
+        when(replayed.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+        cache.get(Locale.GERMAN, 7).writeTo(replayed);
+
+        InOrder order = inOrder(replayed);
+        order.verify(replayed).setLocale(Locale.GERMAN);
+        order.verify(replayed).setContentType("text/html;charset=UTF-8");
+        verify(replayed).setHeader("X-Frame-Options", "DENY");
+        verify(replayed).setHeader("Link", "</a.css>; rel=preload");
+        verify(replayed).addHeader("Link", "</b.js>; rel=preload");
+        verify(replayed).setContentLength("<html>Wettbewerbe</html>".length());
+    }
+
+    @Test
+    public void pagesAreKeyedByLocaleAndVersion() {
+        cache.put(Locale.GERMAN, new RenderedPageCache.RenderedPage(7, new CapturingResponseWrapper(original)));
+
+        assertNotNull(cache.get(Locale.GERMAN, 7));
+        assertNull(cache.get(Locale.ENGLISH, 7));
+        assertNull(cache.get(Locale.GERMAN, 8));
+    }
+}
@@ -0,0 +1,90 @@
+package com.totalizator.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatementCacheTest {
+    private static final String SQL = "UPDATE users SET balance = balance + ? WHERE id = ?";
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private StatementCache cache;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), anyInt())).thenReturn(statement);
+        cache = new StatementCache(connection, () -> connection, 8, new LongAdder(), new LongAdder());
+    }
+
+    @Test
+    public void returnedStatementDropsPendingBatchAndParameters() throws SQLException {
+        PreparedStatement borrowed = cache.prepare(SQL, Statement.NO_GENERATED_KEYS);
+        borrowed.addBatch();
+        borrowed.close();
+
+        verify(statement).clearBatch();
+        verify(statement).clearParameters();
+    }
+
+    @Test
+    public void returnedStatementRestoresFetchSizeMaxRowsAndTimeout() throws SQLException {
+        PreparedStatement borrowed = cache.prepare(SQL, Statement.NO_GENERATED_KEYS);
+        when(statement.getFetchSize()).thenReturn(500);
+        when(statement.getMaxRows()).thenReturn(10);
+        when(statement.getQueryTimeout()).thenReturn(30);
+        borrowed.close();
+
+        verify(statement).setFetchSize(0);
+        verify(statement).setMaxRows(0);
+        verify(statement).setQueryTimeout(0);
+    }
+
+    @Test
+    public void failedResetClosesAndEvictsStatement() throws SQLException {
+        PreparedStatement borrowed = cache.prepare(SQL, Statement.NO_GENERATED_KEYS);
+        doThrow(new SQLException("broken")).when(statement).clearBatch();
+        borrowed.close();
+
+        verify(statement).close();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void staleHandleCannotReleaseOrUseNextBorrow() throws SQLException {
+        PreparedStatement first = cache.prepare(SQL, Statement.NO_GENERATED_KEYS);
+        first.close();
+        PreparedStatement second = cache.prepare(SQL, Statement.NO_GENERATED_KEYS);
+
+        first.close();
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        verify(statement, never()).close();
+
+        try {
+            first.executeBatch();
+        } catch (SQLException expected) {
+            verify(statement, never()).executeBatch();
+            return;
+        }
+        throw new AssertionError("Stale handle must not reach the statement");
+    }
+}
@@ -0,0 +1,142 @@
+package com.totalizator.util;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+public final class StubDriver implements Driver {
+    public static final String URL_PREFIX = "jdbc:stub:";
+    private static final StubDriver INSTANCE = new StubDriver();
+    private static final List<StubConnection> connections = new CopyOnWriteArrayList<>();
+
+    static {
+        try {
+            DriverManager.registerDriver(INSTANCE);
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private StubDriver() {
+    }
+
+    public static void register() {
+    }
+
+    public static Properties poolProperties(int minSize, int maxSize) {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", URL_PREFIX + "pool");
+        properties.setProperty("db.user", "stub");
+        properties.setProperty("db.password", "stub");
+        properties.setProperty("db.pool.minSize", String.valueOf(minSize));
+        properties.setProperty("db.pool.maxSize", String.valueOf(maxSize));
+        return properties;
+    }
+
+    public static List<StubConnection> getConnections() {
+        return connections;
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        StubConnection stub = new StubConnection();
+        connections.add(stub);
+        return stub.connection;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getGlobal();
+    }
+
+    public static final class StubConnection {
+        private volatile boolean closed;
+        private volatile boolean valid = true;
+        private final Connection connection;
+
+        private StubConnection() {
+            connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> !closed && valid;
+                        case "prepareStatement" -> statement();
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> defaultValue(method.getReturnType());
+                    });
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public void invalidate() {
+            valid = false;
+        }
+
+        private static PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> defaultValue(method.getReturnType());
+                    });
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int[].class) {
+            return new int[0];
+        }
+        return null;
+    }
+}